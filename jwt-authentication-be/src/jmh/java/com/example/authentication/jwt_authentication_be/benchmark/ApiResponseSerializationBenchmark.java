@@ -0,0 +1,48 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.common.ApiResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.LoginResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the login/register response body, using the same defaults as Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectWriter writer;
+    private ApiResponse<LoginResponse> body;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        JwtUtil jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        LoginResponse loginResponse = LoginResponse.builder()
+                .accessToken(jwtUtil.generateAccessToken(JwtUtilBenchmark.SUBJECT))
+                .refreshToken(jwtUtil.generateRefreshToken(JwtUtilBenchmark.SUBJECT))
+                .user(UserDto.builder()
+                        .id(1L)
+                        .firstName("John")
+                        .lastName("Doe")
+                        .email(JwtUtilBenchmark.SUBJECT)
+                        .build())
+                .build();
+        body = new ApiResponse<>(true, loginResponse, "Login successful");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(body);
+    }
+}
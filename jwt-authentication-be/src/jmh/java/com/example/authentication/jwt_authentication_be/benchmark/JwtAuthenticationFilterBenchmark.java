@@ -0,0 +1,59 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.config.JwtAuthenticationFilter;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} end to end for an authenticated {@code GET /api/users/me},
+ * with and without the verified token cache. The access token denylist is disabled, as it needs Redis
+ * to load its Bloom filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        AccessTokenDenylist denylist = new AccessTokenDenylist(null, false, 100000, 0.001, 300000, 900000);
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtil, cacheEnabled, 100000), denylist,
+                new SimpleMeterRegistry(), List.of());
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateAccessToken(JwtUtilBenchmark.SUBJECT));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        // OncePerRequestFilter marks the request as filtered; reset so every invocation runs the filter
+        request.clearAttributes();
+        filter.doFilter(request, response, chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
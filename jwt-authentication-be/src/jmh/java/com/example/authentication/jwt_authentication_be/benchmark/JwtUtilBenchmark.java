@@ -0,0 +1,54 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.utils.JwtKeyRing;
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost of {@link JwtUtil}. Run with {@code -prof gc} to see allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "mySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForSecurity";
+    static final String SUBJECT = "admin@example.com";
+
+    private JwtUtil jwtUtil;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        accessToken = jwtUtil.generateAccessToken(SUBJECT);
+    }
+
+    static JwtUtil newJwtUtil() {
+        return new JwtUtil(JwtKeyRing.singleKey(SECRET, Duration.ofDays(7)), new SimpleMeterRegistry(), 900000L,
+                604800000L);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateAccessToken(SUBJECT);
+    }
+
+    @Benchmark
+    public String signRefresh() {
+        return jwtUtil.generateRefreshToken(SUBJECT);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(accessToken);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.RedisRefreshTokenStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refresh token writes per second against a real Redis, one command at a time versus auto-batched into
+ * pipelines. Needs Redis on {@code -Dredis.host} (localhost) and {@code -Dredis.port} (6379); the tokens it
+ * writes expire after a minute.
+ * <p>
+ * Batching pays off with many concurrent writers, as under virtual-thread request handling; run it at, say,
+ * {@code -t 64} as well as the default thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenStoreBenchmark {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    @Param({"false", "true"})
+    public boolean autoBatching;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisRefreshTokenStore store;
+    private final AtomicInteger users = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Session {
+        String subject;
+        String refreshToken;
+
+        @Setup
+        public void setUp(RefreshTokenStoreBenchmark benchmark) {
+            subject = "benchmark-" + benchmark.users.incrementAndGet() + "@example.com";
+            refreshToken = UUID.randomUUID().toString();
+            benchmark.store.store(refreshToken, subject, TTL_MILLIS);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        // Pooled like the refresh token connection with auto-batching; unbatched writes share its native connection
+        connectionFactory = new LettuceConnectionFactory(configuration, LettucePoolingClientConfiguration.builder()
+                .commandTimeout(Duration.ofSeconds(2))
+                .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisTemplate<byte[], byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setEnableDefaultSerializer(false);
+        redisTemplate.afterPropertiesSet();
+
+        store = new RedisRefreshTokenStore(redisTemplate, new SimpleMeterRegistry(), false, 5, 5000,
+                RedisRefreshTokenStore.DegradedMode.REJECT, 0, autoBatching, 64, 2000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+        connectionFactory.destroy();
+    }
+
+    // A login: the first token of a new family
+    @Benchmark
+    public void store(Session session) {
+        store.store(UUID.randomUUID().toString(), session.subject, TTL_MILLIS);
+    }
+
+    // A refresh: consumes the session's token and stores its successor
+    @Benchmark
+    public boolean rotate(Session session) {
+        String next = UUID.randomUUID().toString();
+        boolean rotated = store.rotate(session.refreshToken, next, session.subject, TTL_MILLIS);
+        session.refreshToken = next;
+        return rotated;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.TokenProfile;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of carrying the profile claim in access tokens: sign and verify time with and without it.
+ * The token length for each setting is printed at setup, since every request sends it in its header.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProfileBenchmark {
+
+    @Param({"false", "true"})
+    public boolean profileClaim;
+
+    private JwtUtil jwtUtil;
+    private TokenProfile profile;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        profile = profileClaim
+                ? TokenProfile.builder().id(1L).firstName("John").lastName("Doe").build()
+                : null;
+        accessToken = jwtUtil.generateAccessToken(JwtUtilBenchmark.SUBJECT, profile);
+        System.out.println("Access token length with profileClaim=" + profileClaim + ": " + accessToken.length());
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateAccessToken(JwtUtilBenchmark.SUBJECT, profile);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(accessToken);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.JwtAuthenticationBeApplication;
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and allocation (gc.alloc.rate.norm) of a user lookup by email through a managed entity and
+ * {@code UserMapper} versus the read-only constructor-expression projections, against in-memory H2 without
+ * the user cache. The database round trip is in-process here, so the difference is mostly Hibernate's work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final String EMAIL = "admin@example.com";
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JwtAuthenticationBeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "jwt.access-token-denylist.enabled=false",
+                        "user-cache.enabled=false",
+                        "login-throttle.redis.enabled=false",
+                        "password-hashing.bcrypt-strength=4",
+                        "logging.level.root=WARN")
+                .run();
+        // The caching decorator is bypassed so that every call reaches the database
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Before: what login and /me used to load
+    @Benchmark
+    public User findByEmail() {
+        return userRepository.findByEmail(EMAIL);
+    }
+
+    @Benchmark
+    public UserCredentials findCredentialsByEmail() {
+        return userRepository.findCredentialsByEmail(EMAIL);
+    }
+
+    @Benchmark
+    public UserProfile findProfileByEmail() {
+        return userRepository.findProfileByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.authentication.jwt_authentication_be.benchmark;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.infrastructure.entity.user.UserEntity;
+import com.example.authentication.jwt_authentication_be.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private final UserMapper mapper = new UserMapper();
+    private UserEntity entity;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        entity = UserEntity.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .email("admin@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoO5rG1bWk3Z8b6sP1HnZg0q7L1xYzY1xW")
+                .build();
+        user = mapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public User toDomain() {
+        return mapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return mapper.toEntity(user);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.authentication.jwt_authentication_be.application.service;
 
 import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
 import com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository;
 import com.example.authentication.jwt_authentication_be.presentation.dto.LoginRequest;
 import com.example.authentication.jwt_authentication_be.presentation.dto.LoginResponse;
@@ -9,8 +11,17 @@ import com.example.authentication.jwt_authentication_be.presentation.dto.Refresh
 import com.example.authentication.jwt_authentication_be.presentation.dto.RegisterRequest;
 import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
 import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.TokenProfile;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.LoginThrottle;
 import com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenStore;
 import com.example.authentication.jwt_authentication_be.common.exception.ConflictException;
 import com.example.authentication.jwt_authentication_be.common.exception.UnauthorizedException;
@@ -19,41 +30,62 @@ import com.example.authentication.jwt_authentication_be.common.exception.BadRequ
 @Service
 public class AuthenticationService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+
     private final IUserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenStore refreshTokenStore;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final LoginThrottle loginThrottle;
+    private final boolean profileClaimEnabled;
+    // auth.rejected{reason=...}; expired and malformed tokens are counted by JwtUtil
+    private final Counter badCredentials;
+    private final Counter accessTokenAsRefresh;
+    private final Counter refreshTokenReused;
 
     public AuthenticationService(IUserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
-            RefreshTokenStore refreshTokenStore) {
+            RefreshTokenStore refreshTokenStore, AccessTokenDenylist accessTokenDenylist, LoginThrottle loginThrottle,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.profile-claim.enabled:false}") boolean profileClaimEnabled) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
         this.refreshTokenStore = refreshTokenStore;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.loginThrottle = loginThrottle;
+        this.profileClaimEnabled = profileClaimEnabled;
+        this.badCredentials = Counter.builder("auth.rejected").tag("reason", "bad_credentials")
+                .register(meterRegistry);
+        this.accessTokenAsRefresh = Counter.builder("auth.rejected").tag("reason", "access_as_refresh")
+                .register(meterRegistry);
+        this.refreshTokenReused = Counter.builder("auth.rejected").tag("reason", "refresh_reused")
+                .register(meterRegistry);
     }
 
-    public LoginResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail());
-        if (user == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        // Throttled attempts never reach the database or the password encoder
+        loginThrottle.acquire(clientIp, request.getEmail());
+
+        UserCredentials credentials = userRepository.findCredentialsByEmail(request.getEmail());
+        if (credentials == null || !passwordEncoder.matches(request.getPassword(), credentials.password())) {
+            loginThrottle.recordFailure(request.getEmail());
+            badCredentials.increment();
             throw new UnauthorizedException("Invalid email or password");
         }
 
-        String accessToken = jwtUtil.generateAccessToken(user.getEmail());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
-        // Store refresh token in Redis with TTL for rotation and revocation
-        refreshTokenStore.store(refreshToken, jwtUtil.getRefreshTokenExpiration());
+        UserProfile user = credentials.profile();
+        upgradePasswordHash(user.email(), credentials.password(), request.getPassword());
 
-        UserDto userDto = UserDto.builder()
-                .id(user.getId())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .build();
+        String accessToken = jwtUtil.generateAccessToken(user.email(), profileOf(user));
+        String refreshToken = jwtUtil.generateRefreshToken(user.email());
+        // Store refresh token in Redis with TTL for rotation and revocation
+        refreshTokenStore.store(refreshToken, user.email(), jwtUtil.getRefreshTokenExpiration());
 
         return LoginResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
-                .user(userDto)
+                .user(toDto(user))
                 .build();
     }
 
@@ -64,33 +96,56 @@ public class AuthenticationService {
             throw new BadRequestException("Refresh token is required");
         }
 
-        if (!jwtUtil.isRefreshToken(refreshToken)) {
+        // Single parse: signature and expiry are checked by the parser, invalid tokens throw JwtException
+        VerifiedToken verifiedToken = jwtUtil.verify(refreshToken);
+        if (!verifiedToken.isRefreshToken()) {
+            accessTokenAsRefresh.increment();
             throw new UnauthorizedException("Invalid refresh token");
         }
 
-        String username = jwtUtil.extractUsername(refreshToken);
-        if (!jwtUtil.validateToken(refreshToken, username)) {
+        String username = verifiedToken.getSubject();
+        if (username == null) {
             throw new UnauthorizedException("Refresh token expired or invalid");
         }
 
-        // Check token existence (rotation - reject reused tokens)
-        if (!refreshTokenStore.exists(refreshToken)) {
+        // Re-issuing picks up profile changes made since the previous access token
+        TokenProfile profile = profileClaimEnabled ? profileOf(userRepository.findProfileByEmail(username)) : null;
+        String newAccessToken = jwtUtil.generateAccessToken(username, profile);
+        String newRefreshToken = jwtUtil.generateRefreshToken(username);
+
+        // Rotate refresh token: consume old and store new atomically - reject reused tokens
+        if (!refreshTokenStore.rotate(refreshToken, newRefreshToken, username,
+                jwtUtil.getRefreshTokenExpiration())) {
+            refreshTokenReused.increment();
             throw new UnauthorizedException("Refresh token invalid or already used");
         }
 
-        // Rotate refresh token: invalidate old, issue new, and store
-        refreshTokenStore.delete(refreshToken);
-
-        String newAccessToken = jwtUtil.generateAccessToken(username);
-        String newRefreshToken = jwtUtil.generateRefreshToken(username);
-        refreshTokenStore.store(newRefreshToken, jwtUtil.getRefreshTokenExpiration());
-
         return RefreshTokenResponse.builder()
                 .accessToken(newAccessToken)
                 .refreshToken(newRefreshToken)
                 .build();
     }
 
+    /**
+     * Revokes the given access token for the rest of its life and, if given, deletes the refresh token.
+     */
+    public void logout(VerifiedToken accessToken, String refreshToken) {
+        if (accessToken.getId() != null && accessToken.getExpiration() != null) {
+            accessTokenDenylist.revoke(accessToken.getId(), accessToken.getExpiration());
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenStore.delete(refreshToken);
+        }
+    }
+
+    /**
+     * Revokes every refresh token of the user, e.g. after a password change or a compromised device.
+     * Access tokens already issued stay valid until they expire.
+     */
+    public long logoutEverywhere(String email) {
+        return refreshTokenStore.revokeAll(email, jwtUtil.getRefreshTokenExpiration());
+    }
+
     public LoginResponse register(RegisterRequest request) {
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -105,24 +160,50 @@ public class AuthenticationService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
 
-        User savedUser = userRepository.save(newUser);
+        UserProfile savedUser = UserProfile.of(userRepository.save(newUser));
 
         // Generate tokens
-        String accessToken = jwtUtil.generateAccessToken(savedUser.getEmail());
-        String refreshToken = jwtUtil.generateRefreshToken(savedUser.getEmail());
-        refreshTokenStore.store(refreshToken, jwtUtil.getRefreshTokenExpiration());
-
-        UserDto userDto = UserDto.builder()
-                .id(savedUser.getId())
-                .firstName(savedUser.getFirstName())
-                .lastName(savedUser.getLastName())
-                .email(savedUser.getEmail())
-                .build();
+        String accessToken = jwtUtil.generateAccessToken(savedUser.email(), profileOf(savedUser));
+        String refreshToken = jwtUtil.generateRefreshToken(savedUser.email());
+        refreshTokenStore.store(refreshToken, savedUser.email(), jwtUtil.getRefreshTokenExpiration());
 
         return LoginResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
-                .user(userDto)
+                .user(toDto(savedUser))
+                .build();
+    }
+
+    // The raw password is only available here, so hashes with an old cost or algorithm are replaced on login
+    private void upgradePasswordHash(String email, String passwordHash, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(passwordHash)) {
+            return;
+        }
+        try {
+            userRepository.updatePassword(email, passwordEncoder.encode(rawPassword));
+        } catch (RuntimeException e) {
+            // The login itself succeeded; the next one retries the upgrade
+            log.warn("Failed to upgrade password hash for {}: {}", email, e.getMessage());
+        }
+    }
+
+    private TokenProfile profileOf(UserProfile user) {
+        if (!profileClaimEnabled || user == null) {
+            return null;
+        }
+        return TokenProfile.builder()
+                .id(user.id())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .build();
+    }
+
+    private static UserDto toDto(UserProfile user) {
+        return UserDto.builder()
+                .id(user.id())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .email(user.email())
                 .build();
     }
 }
@@ -0,0 +1,337 @@
+package com.example.authentication.jwt_authentication_be.application.service;
+
+import com.example.authentication.jwt_authentication_be.common.exception.BadRequestException;
+import com.example.authentication.jwt_authentication_be.config.BoundedPasswordEncoder;
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RegisterRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserImportError;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserImportResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Creates users in bulk from a CSV or NDJSON stream, for onboarding a whole tenant at once.
+ * <p>
+ * The stream is read and written in batches of {@code user-import.batch-size} rows, so memory is bounded by one
+ * batch plus the emails seen so far (to catch duplicates within the file). For each batch, the emails already
+ * taken are found with one query, the passwords are hashed in parallel on a pool of
+ * {@code user-import.hashing-threads}, and the new users are inserted with one JDBC batch. A row that fails
+ * any step is reported with its line number and skipped; the rest of the import goes on.
+ * <p>
+ * Hashing bypasses the bounded sign-in pool of {@link BoundedPasswordEncoder}: an import would fill its queue
+ * and turn sign-ins away. It still competes with them for CPU, so lower the thread count to keep headroom.
+ */
+@Service
+public class UserImportService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int MAX_LENGTH = 255;
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+    private static final String[] CSV_COLUMNS = { "firstname", "lastname", "email", "password" };
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final IUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final ExecutorService hashingPool;
+
+    public UserImportService(IUserRepository userRepository, PasswordEncoder passwordEncoder, ObjectMapper objectMapper,
+            @Value("${user-import.batch-size:1000}") int batchSize,
+            @Value("${user-import.hashing-threads:0}") int hashingThreads,
+            @Value("${user-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded
+                ? bounded.getDelegate()
+                : passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedErrors = maxReportedErrors;
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("user-import-hashing-", 1).daemon().factory());
+    }
+
+    /**
+     * Imports every row of {@code input}. CSV needs a header naming the columns firstName, lastName, email and
+     * password, in any order; NDJSON has one object with those fields per line. Blank lines are skipped.
+     */
+    public UserImportResponse importUsers(InputStream input, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Progress progress = new Progress(maxReportedErrors);
+        long lineNumber = 0;
+        int[] csvColumns = null;
+        if (format == Format.CSV) {
+            String header;
+            do {
+                header = reader.readLine();
+                lineNumber++;
+            } while (header != null && header.isBlank());
+            csvColumns = csvColumns(header);
+        }
+
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            progress.total++;
+
+            RegisterRequest request;
+            try {
+                request = format == Format.CSV ? parseCsv(line, csvColumns) : parseJson(line);
+            } catch (IllegalArgumentException e) {
+                progress.fail(lineNumber, null, e.getMessage());
+                continue;
+            }
+            String error = validate(request);
+            if (error != null) {
+                progress.fail(lineNumber, request.getEmail(), error);
+                continue;
+            }
+            if (!seenEmails.add(request.getEmail())) {
+                progress.fail(lineNumber, request.getEmail(), "Duplicate email in import");
+                continue;
+            }
+
+            batch.add(new Row(lineNumber, request));
+            if (batch.size() == batchSize) {
+                importBatch(batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, progress);
+        }
+
+        log.info("User import finished: {} rows, {} imported, {} failed", progress.total, progress.imported,
+                progress.failed);
+        return UserImportResponse.builder()
+                .total(progress.total)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        hashingPool.shutdownNow();
+    }
+
+    private void importBatch(List<Row> rows, Progress progress) {
+        Set<String> existing = userRepository.findExistingEmails(
+                rows.stream().map(row -> row.request().getEmail()).toList());
+        List<Row> newRows = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.request().getEmail())) {
+                progress.fail(row.line(), row.request().getEmail(), "Email already exists");
+            } else {
+                newRows.add(row);
+            }
+        }
+
+        List<Future<String>> hashes = new ArrayList<>(newRows.size());
+        for (Row row : newRows) {
+            hashes.add(hashingPool.submit(() -> passwordEncoder.encode(row.request().getPassword())));
+        }
+        List<Row> hashedRows = new ArrayList<>(newRows.size());
+        List<User> users = new ArrayList<>(newRows.size());
+        for (int i = 0; i < newRows.size(); i++) {
+            Row row = newRows.get(i);
+            try {
+                users.add(User.builder()
+                        .firstName(row.request().getFirstName())
+                        .lastName(row.request().getLastName())
+                        .email(row.request().getEmail())
+                        .password(hashes.get(i).get())
+                        .build());
+                hashedRows.add(row);
+            } catch (ExecutionException e) {
+                progress.fail(row.line(), row.request().getEmail(), "Password rejected: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                hashes.forEach(hash -> hash.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("User import interrupted", e);
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            userRepository.insertAll(users);
+            progress.imported += users.size();
+        } catch (DataIntegrityViolationException e) {
+            // Some email was registered since the check above; the batch was rolled back, so find it row by row
+            for (int i = 0; i < users.size(); i++) {
+                try {
+                    userRepository.insertAll(List.of(users.get(i)));
+                    progress.imported++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    progress.fail(hashedRows.get(i).line(), users.get(i).getEmail(),
+                            rowFailure instanceof DuplicateKeyException
+                                    ? "Email already exists"
+                                    : "Row rejected by the database");
+                }
+            }
+        }
+    }
+
+    // Positions of firstName, lastName, email and password in the CSV rows
+    private static int[] csvColumns(String header) {
+        if (header == null) {
+            throw new BadRequestException("CSV import is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> names = splitCsv(header);
+        int[] columns = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (names.get(j).trim().toLowerCase(Locale.ROOT).equals(CSV_COLUMNS[i])) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new BadRequestException(
+                        "CSV header must name the columns firstName, lastName, email and password");
+            }
+        }
+        return columns;
+    }
+
+    private static RegisterRequest parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        for (int column : columns) {
+            if (column >= fields.size()) {
+                throw new IllegalArgumentException("Missing columns");
+            }
+        }
+        return RegisterRequest.builder()
+                .firstName(fields.get(columns[0]).trim())
+                .lastName(fields.get(columns[1]).trim())
+                .email(fields.get(columns[2]).trim())
+                .password(fields.get(columns[3]))
+                .build();
+    }
+
+    private RegisterRequest parseJson(String line) {
+        try {
+            RegisterRequest request = objectMapper.readValue(line, RegisterRequest.class);
+            if (request.getEmail() != null) {
+                request.setEmail(request.getEmail().trim());
+            }
+            return request;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // Comma-separated fields, optionally double-quoted with "" for a quote; a row is a single line
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String validate(RegisterRequest request) {
+        if (isBlank(request.getFirstName()) || isBlank(request.getLastName()) || isBlank(request.getEmail())
+                || isBlank(request.getPassword())) {
+            return "firstName, lastName, email and password are required";
+        }
+        if (!EMAIL.matcher(request.getEmail()).matches()) {
+            return "Invalid email";
+        }
+        if (request.getFirstName().length() > MAX_LENGTH || request.getLastName().length() > MAX_LENGTH
+                || request.getEmail().length() > MAX_LENGTH) {
+            return "Fields are limited to " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Row(long line, RegisterRequest request) {
+    }
+
+    private static final class Progress {
+        private final int maxReportedErrors;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+
+        Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(UserImportError.builder().line(line).email(email).message(message).build());
+            }
+        }
+    }
+}
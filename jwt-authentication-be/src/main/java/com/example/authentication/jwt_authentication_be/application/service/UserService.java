@@ -1,26 +1,88 @@
 package com.example.authentication.jwt_authentication_be.application.service;
 
 import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
 import com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
 import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserPageResponse;
+import com.example.authentication.jwt_authentication_be.utils.TokenProfile;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
 import org.springframework.stereotype.Service;
+import com.example.authentication.jwt_authentication_be.common.exception.BadRequestException;
 import com.example.authentication.jwt_authentication_be.common.exception.NotFoundException;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 @Service
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final IUserRepository userRepository;
+    private final AccessTokenDenylist accessTokenDenylist;
 
-    public UserService(IUserRepository userRepository) {
+    public UserService(IUserRepository userRepository, AccessTokenDenylist accessTokenDenylist) {
         this.userRepository = userRepository;
+        this.accessTokenDenylist = accessTokenDenylist;
+    }
+
+    /**
+     * The caller's profile, read from the token's profile claim when it has one that is still current,
+     * otherwise from the repository.
+     */
+    public UserDto getCurrentUser(VerifiedToken token) {
+        TokenProfile profile = token.getProfile();
+        if (profile != null && !accessTokenDenylist.isProfileChangedSince(token.getSubject(), token.getIssuedAt())) {
+            return UserDto.builder()
+                    .id(profile.getId())
+                    .firstName(profile.getFirstName())
+                    .lastName(profile.getLastName())
+                    .email(token.getSubject())
+                    .build();
+        }
+        return getUserByEmail(token.getSubject());
+    }
+
+    /**
+     * Up to {@code limit} users with an id above {@code afterId}, in id order. Seeking by id keeps every page
+     * as cheap as the first one, unlike an offset.
+     */
+    public UserPageResponse listUsers(long afterId, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<UserDto> users = userRepository.findPageAfter(afterId, limit).stream()
+                .map(UserService::toDto)
+                .toList();
+        Long nextAfterId = users.size() < limit ? null : users.get(users.size() - 1).getId();
+        return UserPageResponse.builder()
+                .users(users)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    // Hands every user to the consumer as it is read, without holding more than one fetch in memory
+    public void exportUsers(Consumer<UserDto> consumer) {
+        userRepository.forEachUser(user -> consumer.accept(toDto(user)));
     }
 
     public UserDto getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email);
+        UserProfile user = userRepository.findProfileByEmail(email);
         if (user == null) {
             throw new NotFoundException("User not found");
         }
 
+        return UserDto.builder()
+                .id(user.id())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .email(user.email())
+                .build();
+    }
+
+    private static UserDto toDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
                 .firstName(user.getFirstName())
@@ -1,9 +0,0 @@
-package com.example.authentication.jwt_authentication_be.common.exception;
-
-import org.springframework.http.HttpStatus;
-
-public class ServiceUnavailableException extends AppException {
-    public ServiceUnavailableException(String message) {
-        super(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE", message);
-    }
-}
@@ -0,0 +1,47 @@
+package com.example.authentication.jwt_authentication_be.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost whose hash time on this machine comes closest to a target without exceeding it.
+ * <p>
+ * Each cost step doubles the work, so a few hashes at {@link #MIN_COST} are timed and the result is
+ * extrapolated instead of trying every cost. The cost never goes below {@link #MIN_COST}, even on slow
+ * hardware, nor above {@link #MAX_COST}.
+ */
+final class BCryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    static int calibrate(Duration targetLatency) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_COST);
+        // The first hash also pays for class loading and JIT warm-up, so keep the fastest sample
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+
+        int cost = MIN_COST;
+        long estimatedNanos = fastestNanos;
+        while (cost < MAX_COST && estimatedNanos * 2 <= targetLatency.toNanos()) {
+            cost++;
+            estimatedNanos *= 2;
+        }
+        log.info("BCrypt cost {} selected: ~{} ms per hash (cost {} took {} ms, target {} ms)", cost,
+                estimatedNanos / 1_000_000, MIN_COST, fastestNanos / 1_000_000, targetLatency.toMillis());
+        return cost;
+    }
+}
@@ -1,26 +1,53 @@
 package com.example.authentication.jwt_authentication_be.config;
 
-import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"),
+            new SimpleGrantedAuthority("ROLE_ADMIN"));
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final Set<String> adminEmails;
+    private final Counter refreshTokenAsAccess;
+    private final Counter revokedTokens;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, AccessTokenDenylist accessTokenDenylist,
+            MeterRegistry meterRegistry, @Value("${security.admin-emails:}") List<String> adminEmails) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.adminEmails = adminEmails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.refreshTokenAsAccess = Counter.builder("auth.rejected").tag("reason", "refresh_as_access")
+                .register(meterRegistry);
+        this.revokedTokens = Counter.builder("auth.rejected").tag("reason", "revoked").register(meterRegistry);
     }
 
     @Override
@@ -35,29 +62,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractTokenFromRequest(request);
         if (token != null) {
+            long start = System.nanoTime();
             try {
-                if (jwtUtil.isRefreshToken(token)) {
+                VerifiedToken verifiedToken = verifiedTokenCache.verify(token);
+                if (verifiedToken.isRefreshToken()) {
+                    refreshTokenAsAccess.increment();
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
 
-                String username = jwtUtil.extractUsername(token);
-                if (username != null && jwtUtil.validateToken(token, username)) {
+                // Checked on cache hits too; a local Bloom filter answers without Redis for tokens that aren't revoked
+                if (accessTokenDenylist.isRevoked(verifiedToken.getId())) {
+                    revokedTokens.increment();
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    return;
+                }
+
+                if (verifiedToken.getSubject() != null) {
+                    // The verified token is the principal so downstream code never re-parses the JWT
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            username,
+                            verifiedToken,
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                            isAdmin(verifiedToken.getSubject()) ? ADMIN_AUTHORITIES : USER_AUTHORITIES
                     );
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             } catch (Exception e) {
                 SecurityContextHolder.clearContext();
+            } finally {
+                RequestTiming.record(RequestTiming.Stage.JWT, System.nanoTime() - start);
             }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private boolean isAdmin(String email) {
+        return !adminEmails.isEmpty() && adminEmails.contains(email.toLowerCase(Locale.ROOT));
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,37 @@
+package com.example.authentication.jwt_authentication_be.config;
+
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.CachingUserRepository;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size for the verified token cache
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache verifiedTokenCache) {
+        return registry -> {
+            if (verifiedTokenCache.getNativeCache() != null) {
+                CaffeineCacheMetrics.monitor(registry, verifiedTokenCache.getNativeCache(), "jwt.verified-access-tokens");
+            }
+        };
+    }
+
+    // Per-tier hit ratios of the user cache: cache.gets{cache=users.local|users.redis, result=hit|miss}
+    @Bean
+    public MeterBinder userCacheMetrics(CachingUserRepository userRepository) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, userRepository.getLocalCache(), "users.local");
+            FunctionCounter.builder("cache.gets", userRepository, CachingUserRepository::getRedisHits)
+                    .tags("cache", "users.redis", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", userRepository, CachingUserRepository::getRedisMisses)
+                    .tags("cache", "users.redis", "result", "miss")
+                    .register(registry);
+        };
+    }
+}
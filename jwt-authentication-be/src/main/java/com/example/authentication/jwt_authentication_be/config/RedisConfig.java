@@ -1,13 +1,29 @@
 package com.example.authentication.jwt_authentication_be.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.data.redis.ClientResourcesBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisPassword;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
 
 @Configuration
 public class RedisConfig {
@@ -21,17 +37,156 @@ public class RedisConfig {
     @Value("${spring.data.redis.password:}")
     private String password;
 
+    @Value("${spring.data.redis.timeout:60s}")
+    private Duration timeout;
+
+    @Value("${spring.data.redis.connect-timeout:10s}")
+    private Duration connectTimeout;
+
+    @Value("${redis.lettuce.io-threads:0}")
+    private int ioThreads;
+
+    @Value("${redis.lettuce.computation-threads:0}")
+    private int computationThreads;
+
+    @Value("${spring.data.redis.lettuce.pool.enabled:false}")
+    private boolean poolEnabled;
+
+    @Value("${spring.data.redis.lettuce.pool.max-active:8}")
+    private int poolMaxActive;
+
+    @Value("${spring.data.redis.lettuce.pool.max-idle:8}")
+    private int poolMaxIdle;
+
+    @Value("${spring.data.redis.lettuce.pool.min-idle:0}")
+    private int poolMinIdle;
+
+    @Value("${spring.data.redis.lettuce.pool.max-wait:2s}")
+    private Duration poolMaxWait;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${jwt.refresh-token-store.timeout:250}")
+    private long refreshTokenStoreTimeout;
+
+    @Value("${jwt.refresh-token-store.auto-batching.enabled:false}")
+    private boolean refreshTokenAutoBatching;
+
+    // Sizes the Netty event loop and computation pools Spring Boot builds its ClientResources with, which also
+    // carry the Micrometer command latency recorder (lettuce.command.completion and lettuce.command.firstresponse);
+    // 0 keeps Lettuce's default of one thread per CPU. Both factories share them.
+    @Bean
+    public ClientResourcesBuilderCustomizer lettuceThreadPools() {
+        return builder -> {
+            if (ioThreads > 0) {
+                builder.ioThreadPoolSize(ioThreads);
+            }
+            if (computationThreads > 0) {
+                builder.computationThreadPoolSize(computationThreads);
+            }
+        };
+    }
+
+    // Commands share one multiplexed connection; the pool, when enabled, only serves those that need a
+    // connection of their own (pipelines, transactions, blocking reads)
+    @Bean
+    @Primary
+    public RedisConnectionFactory redisConnectionFactory(ClientResources clientResources) {
+        LettuceClientConfiguration clientConfiguration = clientConfiguration(poolEnabled, "redis")
+                .clientResources(clientResources)
+                .commandTimeout(timeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).keepAlive(true).build())
+                        .build())
+                .build();
+        return connectionFactory(clientConfiguration);
+    }
+
+    // The refresh token store's own connection, which gives up quickly so that its circuit breaker opens before
+    // request threads pile up: commands and connection attempts time out after jwt.refresh-token-store.timeout
+    // ms, and commands fail at once instead of queueing while the connection is down. Auto-batching pipelines
+    // its writes, which takes a pooled connection.
+    @Bean
+    public RedisConnectionFactory refreshTokenConnectionFactory(ClientResources clientResources) {
+        Duration storeTimeout = Duration.ofMillis(refreshTokenStoreTimeout);
+        LettuceClientConfiguration clientConfiguration =
+                clientConfiguration(poolEnabled || refreshTokenAutoBatching, "redis-refresh-tokens")
+                        .clientResources(clientResources)
+                        .commandTimeout(storeTimeout)
+                        .clientOptions(ClientOptions.builder()
+                                .socketOptions(SocketOptions.builder().connectTimeout(storeTimeout).keepAlive(true)
+                                        .build())
+                                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                                .build())
+                        .build();
+        return connectionFactory(clientConfiguration);
+    }
+
+    // commons-pool2 registers every pool over JMX; this publishes them as commons.pool2.* meters tagged with the
+    // pool's name (redis, redis-refresh-tokens)
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public CommonsObjectPool2Metrics redisPoolMetrics() {
+        return new CommonsObjectPool2Metrics();
+    }
+
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    // Raw byte[] keys and values, for the refresh token store, which keeps binary digests rather than strings
+    @Bean
+    public RedisTemplate<byte[], byte[]> binaryRedisTemplate(
+            @Qualifier("refreshTokenConnectionFactory") RedisConnectionFactory connectionFactory) {
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setEnableDefaultSerializer(false);
+        return template;
+    }
+
+    // Pub/sub subscriptions (e.g. user cache invalidation); connects only once a listener is registered
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreads) {
+            // Listeners block on Redis and the database, not the CPU
+            container.setTaskExecutor(virtualThreadExecutor("redis-listener-"));
+        }
+        return container;
+    }
+
+    private LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration(boolean pooled,
+            String poolName) {
+        if (!pooled) {
+            return LettuceClientConfiguration.builder();
+        }
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(poolMaxActive);
+        poolConfig.setMaxIdle(poolMaxIdle);
+        poolConfig.setMinIdle(poolMinIdle);
+        poolConfig.setMaxWait(poolMaxWait);
+        poolConfig.setJmxNamePrefix(poolName);
+        return LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+    }
+
+    private LettuceConnectionFactory connectionFactory(LettuceClientConfiguration clientConfiguration) {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
         if (password != null && !password.isBlank()) {
             configuration.setPassword(RedisPassword.of(password));
         }
-        return new LettuceConnectionFactory(configuration);
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration, clientConfiguration);
+        if (virtualThreads) {
+            factory.setExecutor(virtualThreadExecutor("redis-"));
+        }
+        return factory;
     }
 
-    @Bean
-    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
-        return new StringRedisTemplate(connectionFactory);
+    // What Spring Boot would configure for its own Redis beans when spring.threads.virtual.enabled is set
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
     }
 }
@@ -0,0 +1,60 @@
+package com.example.authentication.jwt_authentication_be.config;
+
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks where the controller starts and where its response body starts being written, splitting a request
+ * timed by {@link RequestTimingFilter} into filters, handler and serialization. With
+ * {@code request-timing.server-timing} on, also sets the {@code Server-Timing} header, which has to happen
+ * before the body commits the response.
+ */
+@ControllerAdvice
+public class RequestTimingAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor, WebMvcConfigurer {
+
+    private final boolean serverTiming;
+
+    public RequestTimingAdvice(@Value("${request-timing.server-timing:false}") boolean serverTiming) {
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTiming.markHandlerStart();
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTiming timing = RequestTiming.current();
+        if (serverTiming && timing != null) {
+            response.getHeaders().set(RequestTimingFilter.SERVER_TIMING, timing.serverTiming(System.nanoTime()));
+        }
+        RequestTiming.markBodyStart();
+        return body;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.authentication.jwt_authentication_be.config;
+
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every request by stage with {@link RequestTiming}, from before any other filter until the response is
+ * complete.
+ * <p>
+ * Requests slower than {@code request-timing.slow-threshold} ms are logged with their stage breakdown, a
+ * {@code request-timing.slow-sample-rate} fraction of them so that a general slowdown doesn't flood the log.
+ * With {@code request-timing.server-timing} on, responses carry a {@code Server-Timing} header; it is set by
+ * {@link RequestTimingAdvice} before a body is written and completed here when the response isn't committed
+ * yet. Serialization time therefore only shows in the log, and responses the security filters commit
+ * themselves (401 and 403 without a body) carry no header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final boolean serverTiming;
+
+    public RequestTimingFilter(
+            @Value("${request-timing.enabled:true}") boolean enabled,
+            @Value("${request-timing.slow-threshold:500}") long slowThresholdMillis,
+            @Value("${request-timing.slow-sample-rate:1.0}") double slowSampleRate,
+            @Value("${request-timing.server-timing:false}") boolean serverTiming) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowSampleRate = slowSampleRate;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.clear();
+            long now = System.nanoTime();
+            if (serverTiming && !response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, timing.serverTiming(now));
+            }
+            long elapsed = timing.elapsed(now);
+            if (elapsed >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+                log.warn("Slow request method={} uri={} status={} total_ms={} {}", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        timing.breakdown(now));
+            }
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
+import com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Read-through, two-level cache in front of {@link UserRepository}, keyed by email and by id.
+ * <p>
+ * The first tier is an in-process Caffeine cache bounded by size and TTL; the second is Redis, shared by all
+ * nodes, holding the user as JSON (password hash included, since login reads it too). Writes and deletes evict
+ * both tiers and publish the evicted keys so that every node drops them from its first tier; a node that misses
+ * the message serves stale data for at most {@code user-cache.local.ttl}. A Redis outage degrades to
+ * Postgres lookups instead of failing requests.
+ * <p>
+ * A miss that read the database before a concurrent write must not cache what it read after that write's
+ * eviction. Every eviction therefore also bumps a generation: {@code user:gen:<key>} in Redis, in the same
+ * script as the deletion, and a counter for the first tier. A miss notes both before reading and fills a tier
+ * only if its generation is unchanged. Keys whose eviction in Redis failed are not read from or written to
+ * Redis on this node until a retry, every {@code user-cache.eviction-retry-interval} ms, has evicted them.
+ * <p>
+ * Being the repository every caller gets, it also times each method as the caller sees it, cache hits included,
+ * as {@code auth.user.repository{method=...}}, and reports it to {@link RequestTiming}.
+ */
+@Primary
+@Repository
+public class CachingUserRepository implements IUserRepository, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingUserRepository.class);
+
+    static final String INVALIDATION_CHANNEL = "user-cache-invalidation";
+    private static final String EMAIL_PREFIX = "user:email:";
+    private static final String ID_PREFIX = "user:id:";
+    private static final String GENERATION_PREFIX = "user:gen:";
+
+    // KEYS[1] generation of the key that missed, KEYS[2] email key, KEYS[3] id key;
+    // ARGV[1] generation seen before the database read ('' for none), ARGV[2] user JSON, ARGV[3] TTL
+    private static final RedisScript<Boolean> FILL_SCRIPT = RedisScript.of("""
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            redis.call('SET', KEYS[3], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Boolean.class);
+
+    // KEYS the cache keys, then their generations in the same order; ARGV[1] generation TTL
+    private static final RedisScript<Boolean> EVICT_SCRIPT = RedisScript.of("""
+            local n = #KEYS / 2
+            for i = 1, n do
+                redis.call('DEL', KEYS[i])
+                redis.call('INCR', KEYS[n + i])
+                redis.call('PEXPIRE', KEYS[n + i], ARGV[1])
+            end
+            return 1
+            """, Boolean.class);
+
+    private final UserRepository delegate;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration redisTtl;
+    private final Cache<String, User> localCache;
+    // Bumped by every eviction, local or announced by another node
+    private final AtomicLong localEvictions = new AtomicLong();
+    private final Set<String> unconfirmedEvictions = ConcurrentHashMap.newKeySet();
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public CachingUserRepository(UserRepository delegate, AccessTokenDenylist accessTokenDenylist,
+            StringRedisTemplate redisTemplate, ObjectMapper objectMapper, RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${user-cache.enabled:true}") boolean enabled,
+            @Value("${user-cache.local.maximum-size:10000}") long localMaximumSize,
+            @Value("${user-cache.local.ttl:60000}") long localTtl,
+            @Value("${user-cache.redis.ttl:600000}") long redisTtl) {
+        this.delegate = delegate;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.redisTtl = Duration.ofMillis(redisTtl);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(localTtl))
+                .recordStats()
+                .build();
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return timed("existsByEmail", () -> delegate.existsByEmail(email));
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        return timed("findByEmail", () -> copy(lookup(EMAIL_PREFIX + email, () -> loadByEmail(email))));
+    }
+
+    // Served from the cached user; a miss loads it through the credentials projection rather than as an entity
+    @Override
+    public UserCredentials findCredentialsByEmail(String email) {
+        return timed("findCredentialsByEmail", () -> {
+            if (!enabled) {
+                return delegate.findCredentialsByEmail(email);
+            }
+            User user = lookup(EMAIL_PREFIX + email, () -> loadByEmail(email));
+            return user == null ? null : UserCredentials.of(user);
+        });
+    }
+
+    @Override
+    public UserProfile findProfileByEmail(String email) {
+        return timed("findProfileByEmail", () -> {
+            if (!enabled) {
+                return delegate.findProfileByEmail(email);
+            }
+            User user = lookup(EMAIL_PREFIX + email, () -> loadByEmail(email));
+            return user == null ? null : UserProfile.of(user);
+        });
+    }
+
+    @Override
+    public void updatePassword(String email, String password) {
+        timed("updatePassword", () -> {
+            User existing = enabled ? lookup(EMAIL_PREFIX + email, () -> loadByEmail(email)) : null;
+            delegate.updatePassword(email, password);
+            evict(existing, User.builder().email(email).build());
+        });
+    }
+
+    @Override
+    public User findById(Long id) {
+        return timed("findById", () -> copy(lookup(ID_PREFIX + id, () -> delegate.findById(id))));
+    }
+
+    @Override
+    public User save(User user) {
+        return timed("save", () -> {
+            // The email may have changed, so the keys of the stored version go too
+            User previous = user.getId() != null
+                    ? lookup(ID_PREFIX + user.getId(), () -> delegate.findById(user.getId()))
+                    : null;
+            User saved = delegate.save(user);
+            evict(previous, saved);
+            if (previous != null && profileChanged(previous, saved)) {
+                markProfileChanged(previous.getEmail());
+            }
+            return saved;
+        });
+    }
+
+    @Override
+    public void deleteByEmail(String email) {
+        timed("deleteByEmail", () -> {
+            User existing = enabled ? lookup(EMAIL_PREFIX + email, () -> loadByEmail(email)) : null;
+            delegate.deleteByEmail(email);
+            evict(existing, User.builder().email(email).build());
+        });
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        timed("deleteById", () -> {
+            User existing = enabled ? lookup(ID_PREFIX + id, () -> delegate.findById(id)) : null;
+            delegate.deleteById(id);
+            evict(existing, User.builder().id(id).build());
+        });
+    }
+
+    @Override
+    @Deprecated
+    public Iterable<User> findAll() {
+        return timed("findAll", delegate::findAll);
+    }
+
+    @Override
+    public List<User> findPageAfter(long afterId, int limit) {
+        return timed("findPageAfter", () -> delegate.findPageAfter(afterId, limit));
+    }
+
+    // Includes the time the action takes for each user, e.g. writing it to the client
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        timed("forEachUser", () -> delegate.forEachUser(action));
+    }
+
+    @Override
+    public long count() {
+        return timed("count", delegate::count);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return timed("findExistingEmails", () -> delegate.findExistingEmails(emails));
+    }
+
+    // Misses are never cached, so new users need no eviction
+    @Override
+    public void insertAll(List<User> users) {
+        timed("insertAll", () -> delegate.insertAll(users));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] keys = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        localEvictions.incrementAndGet();
+        localCache.invalidateAll(Arrays.asList(keys));
+    }
+
+    @Scheduled(fixedDelayString = "${user-cache.eviction-retry-interval:1000}")
+    public void retryEvictions() {
+        if (unconfirmedEvictions.isEmpty()) {
+            return;
+        }
+        List<String> keys = List.copyOf(unconfirmedEvictions);
+        try {
+            evictInRedis(keys);
+        } catch (RuntimeException e) {
+            log.debug("User cache eviction retry failed for {}: {}", keys, e.getMessage());
+            return;
+        }
+        keys.forEach(unconfirmedEvictions::remove);
+        log.info("User cache eviction in Redis succeeded on retry for {}", keys);
+    }
+
+    public Cache<String, User> getLocalCache() {
+        return localCache;
+    }
+
+    public long getRedisHits() {
+        return redisHits.sum();
+    }
+
+    public long getRedisMisses() {
+        return redisMisses.sum();
+    }
+
+    private <T> T timed(String method, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(method).record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTiming.record(RequestTiming.Stage.USER_REPOSITORY, elapsed);
+        }
+    }
+
+    private void timed(String method, Runnable call) {
+        timed(method, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String method) {
+        return timers.computeIfAbsent(method,
+                m -> Timer.builder("auth.user.repository").tag("method", m).register(meterRegistry));
+    }
+
+    // The credentials projection carries every field of a user, without loading an entity
+    private User loadByEmail(String email) {
+        UserCredentials credentials = delegate.findCredentialsByEmail(email);
+        if (credentials == null) {
+            return null;
+        }
+        UserProfile profile = credentials.profile();
+        return User.builder()
+                .id(profile.id())
+                .firstName(profile.firstName())
+                .lastName(profile.lastName())
+                .email(profile.email())
+                .password(credentials.password())
+                .build();
+    }
+
+    private User lookup(String key, Supplier<User> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        User user = localCache.getIfPresent(key);
+        if (user != null) {
+            return user;
+        }
+
+        long localGeneration = localEvictions.get();
+        RedisEntry cached = readRedis(key);
+        user = cached.user();
+        if (user == null) {
+            user = loader.get();
+            if (user != null && cached.generation() != null) {
+                writeRedis(key, cached.generation(), user);
+            }
+        }
+        if (user != null) {
+            List<String> keys = List.of(EMAIL_PREFIX + user.getEmail(), ID_PREFIX + user.getId());
+            localCache.put(keys.get(0), user);
+            localCache.put(keys.get(1), user);
+            // An eviction since the read may have run before the puts; it wins
+            if (localEvictions.get() != localGeneration) {
+                localCache.invalidateAll(keys);
+            }
+        }
+        return user;
+    }
+
+    // The cached user, if any, and the key's generation, or no generation if Redis can't be used for the key
+    private record RedisEntry(User user, String generation) {
+    }
+
+    private RedisEntry readRedis(String key) {
+        if (unconfirmedEvictions.contains(key)) {
+            return new RedisEntry(null, null);
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(key, generationKey(key)));
+            String json = values.get(0);
+            if (json == null) {
+                redisMisses.increment();
+                return new RedisEntry(null, Objects.requireNonNullElse(values.get(1), ""));
+            }
+            redisHits.increment();
+            return new RedisEntry(objectMapper.readValue(json, User.class), null);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("User cache read from Redis failed for {}: {}", key, e.getMessage());
+            return new RedisEntry(null, null);
+        }
+    }
+
+    private void writeRedis(String key, String generation, User user) {
+        String emailKey = EMAIL_PREFIX + user.getEmail();
+        String idKey = ID_PREFIX + user.getId();
+        if (unconfirmedEvictions.contains(emailKey) || unconfirmedEvictions.contains(idKey)) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(user);
+            redisTemplate.execute(FILL_SCRIPT, List.of(generationKey(key), emailKey, idKey),
+                    generation, json, Long.toString(redisTtl.toMillis()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("User cache write to Redis failed for {}: {}", user.getEmail(), e.getMessage());
+        }
+    }
+
+    private void evict(User... users) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (User user : users) {
+            if (user == null) {
+                continue;
+            }
+            if (user.getEmail() != null) {
+                keys.add(EMAIL_PREFIX + user.getEmail());
+            }
+            if (user.getId() != null) {
+                keys.add(ID_PREFIX + user.getId());
+            }
+        }
+        localEvictions.incrementAndGet();
+        localCache.invalidateAll(keys);
+        try {
+            evictInRedis(keys);
+        } catch (RuntimeException e) {
+            unconfirmedEvictions.addAll(keys);
+            log.warn("User cache eviction in Redis failed for {}, will retry: {}", keys, e.getMessage());
+        }
+    }
+
+    private void evictInRedis(List<String> keys) {
+        List<String> scriptKeys = new ArrayList<>(keys);
+        keys.forEach(key -> scriptKeys.add(generationKey(key)));
+        // Outlives any lookup that could have seen the previous generation
+        redisTemplate.execute(EVICT_SCRIPT, scriptKeys, Long.toString(redisTtl.toMillis()));
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join("\n", keys));
+    }
+
+    private static String generationKey(String key) {
+        return GENERATION_PREFIX + key.substring("user:".length());
+    }
+
+    // Access tokens may carry the old profile in their claims; the save itself has already succeeded
+    private void markProfileChanged(String email) {
+        try {
+            accessTokenDenylist.markProfileChanged(email);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record profile change of {}: {}", email, e.getMessage());
+        }
+    }
+
+    private static boolean profileChanged(User previous, User current) {
+        return !Objects.equals(previous.getEmail(), current.getEmail())
+                || !Objects.equals(previous.getFirstName(), current.getFirstName())
+                || !Objects.equals(previous.getLastName(), current.getLastName());
+    }
+
+    // Cached instances are shared, so callers get their own mutable copy
+    private static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        return User.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import com.example.authentication.jwt_authentication_be.common.exception.ServiceUnavailableException;
+import com.example.authentication.jwt_authentication_be.utils.TokenDigests;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.digest;
+
+/**
+ * {@link RefreshTokenStore} in this node's memory, for single-node deployments and tests, selected with
+ * {@code jwt.refresh-token-store.type=memory}.
+ * <p>
+ * Tokens live in a {@link RefreshTokenTable} sized once for {@code jwt.refresh-token-store.memory.max-tokens}
+ * (80 bytes per token, off-heap); when it is full, new sessions are refused with a 503 until tokens expire.
+ * Expired tokens are dropped every {@code memory.tick} ms by the table's timing wheel, and are refused before
+ * then.
+ * <p>
+ * With {@code memory.snapshot-path} set, the tokens are written to that file through a memory mapping every
+ * {@code memory.snapshot-interval} ms and on shutdown, and read back on startup. A crash loses the changes since
+ * the last snapshot: tokens issued meanwhile are refused, and tokens used meanwhile can be used once more.
+ * <p>
+ * A single {@link ReentrantLock} guards the table; every operation is a few memory accesses under it.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-token-store.type", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+
+    // "RTS1"
+    private static final int SNAPSHOT_MAGIC = 0x52545331;
+    private static final int SNAPSHOT_HEADER_BYTES = 8;
+
+    private final RefreshTokenTable table;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Path snapshotPath;
+    private final Timer storeTimer;
+    private final Timer deleteTimer;
+    private final Timer rotateTimer;
+    private final Timer revokeAllTimer;
+
+    public InMemoryRefreshTokenStore(MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-token-store.memory.max-tokens:1000000}") int maxTokens,
+            @Value("${jwt.refresh-token-store.memory.tick:1000}") long tickMillis,
+            @Value("${jwt.refresh-token-store.memory.snapshot-path:}") String snapshotPath) {
+        this.table = new RefreshTokenTable(maxTokens, tickMillis, System.currentTimeMillis());
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.storeTimer = timer(meterRegistry, "store");
+        this.deleteTimer = timer(meterRegistry, "delete");
+        this.rotateTimer = timer(meterRegistry, "rotate");
+        this.revokeAllTimer = timer(meterRegistry, "revoke_all");
+        Gauge.builder("auth.refresh.store.memory.tokens", this, store -> store.table.size()).register(meterRegistry);
+        Gauge.builder("auth.refresh.store.memory.bytes", table, RefreshTokenTable::bytes).register(meterRegistry);
+        if (this.snapshotPath != null) {
+            load();
+        }
+    }
+
+    @Override
+    public void store(String refreshToken, String subject, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        ByteBuffer digest = ByteBuffer.wrap(digest(refreshToken));
+        long owner = owner(subject);
+        locked(storeTimer, () -> put(digest.getLong(0), digest.getLong(8), owner, expiresAt));
+    }
+
+    @Override
+    public void delete(String refreshToken) {
+        ByteBuffer digest = ByteBuffer.wrap(digest(refreshToken));
+        locked(deleteTimer, () -> table.remove(digest.getLong(0), digest.getLong(8)));
+    }
+
+    @Override
+    public boolean rotate(String oldRefreshToken, String newRefreshToken, String subject, long ttlMillis) {
+        ByteBuffer oldDigest = ByteBuffer.wrap(digest(oldRefreshToken));
+        ByteBuffer newDigest = ByteBuffer.wrap(digest(newRefreshToken));
+        long owner = owner(subject);
+        return locked(rotateTimer, () -> {
+            long now = System.currentTimeMillis();
+            if (table.remove(oldDigest.getLong(0), oldDigest.getLong(8)) <= now) {
+                return false;
+            }
+            // The old token's slot was just freed, so there is room for the new one
+            return put(newDigest.getLong(0), newDigest.getLong(8), owner, now + ttlMillis);
+        });
+    }
+
+    @Override
+    public long revokeAll(String subject, long ttlMillis) {
+        long owner = owner(subject);
+        return locked(revokeAllTimer, () -> (long) table.removeOwner(owner, System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-store.memory.tick:1000}")
+    public void expire() {
+        lock.lock();
+        try {
+            table.advance(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the stored tokens to {@code memory.snapshot-path}, through a temporary file that then replaces it.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-store.memory.snapshot-interval:60000}")
+    public void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        int written;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer;
+            lock.lock();
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        SNAPSHOT_HEADER_BYTES + (long) table.size() * RefreshTokenTable.RECORD_BYTES);
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(table.size());
+                written = table.writeTo(buffer);
+            } finally {
+                lock.unlock();
+            }
+            // Only the copy into the page cache holds up requests, not the write to disk
+            buffer.force();
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write refresh token snapshot {}: {}", snapshotPath, e.getMessage());
+            return;
+        }
+        log.debug("Wrote {} refresh tokens to {}", written, snapshotPath);
+    }
+
+    @Override
+    public void close() {
+        snapshot();
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int records = size >= SNAPSHOT_HEADER_BYTES ? buffer.getInt(4) : -1;
+            if (records < 0 || buffer.getInt(0) != SNAPSHOT_MAGIC
+                    || size != SNAPSHOT_HEADER_BYTES + (long) records * RefreshTokenTable.RECORD_BYTES) {
+                log.warn("Ignoring refresh token snapshot {}: not a snapshot or truncated", snapshotPath);
+                return;
+            }
+            buffer.position(SNAPSHOT_HEADER_BYTES);
+            int loaded = 0;
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < records; i++) {
+                if (table.readFrom(buffer, now)) {
+                    loaded++;
+                }
+            }
+            log.info("Loaded {} of {} refresh tokens from {}", loaded, records, snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not read refresh token snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Under the lock; a full table first drops what has expired
+    private boolean put(long digestHi, long digestLo, long owner, long expiresAt) {
+        if (table.put(digestHi, digestLo, owner, expiresAt)) {
+            return true;
+        }
+        table.advance(System.currentTimeMillis());
+        if (!table.put(digestHi, digestLo, owner, expiresAt)) {
+            throw new ServiceUnavailableException("Session store full, please retry later", 60);
+        }
+        return true;
+    }
+
+    private <T> T locked(Timer timer, Supplier<T> operation) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTiming.record(RequestTiming.Stage.REFRESH_STORE, elapsed);
+        }
+    }
+
+    // First 8 bytes of the subject's SHA-256 digest: a collision between two users is not a practical concern
+    private static long owner(String subject) {
+        return ByteBuffer.wrap(TokenDigests.sha256(subject)).getLong();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.refresh.store").tag("operation", operation).register(meterRegistry);
+    }
+}
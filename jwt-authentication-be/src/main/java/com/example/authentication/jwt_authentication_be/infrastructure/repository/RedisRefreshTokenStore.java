@@ -0,0 +1,333 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.RequestTiming;
+import com.example.authentication.jwt_authentication_be.common.exception.ServiceUnavailableException;
+import com.example.authentication.jwt_authentication_be.utils.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.ROTATE_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.REVOKE_ALL_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.STORE_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.digest;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.indexKey;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.key;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.keyPrefix;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.legacyKey;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.newEntry;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.number;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.revokedKey;
+
+/**
+ * {@link RefreshTokenStore} in Redis, shared by every node: tokens are kept until they expire, in the format
+ * described by {@link RefreshTokenLayout}. Used unless {@code jwt.refresh-token-store.type} says otherwise.
+ * <p>
+ * Tokens stored by earlier versions under {@code rt:<jwt>} are still accepted by {@link #rotate} while
+ * {@code jwt.refresh-token-store.legacy-keys-fallback} is on; they move to the digest format on their next
+ * rotation, and the rest simply expire. They are not indexed, so {@link #revokeAll} cannot delete them, but once
+ * it ran for their owner they can no longer be rotated.
+ * <p>
+ * Redis is reached through a connection of its own whose commands time out after
+ * {@code jwt.refresh-token-store.timeout} ms, behind a {@link CircuitBreaker}: after
+ * {@code breaker.failure-threshold} failures in a row the store stops calling Redis for
+ * {@code breaker.open-duration} ms, so that a sick Redis costs requests a fraction of a second instead of holding
+ * their threads. What happens meanwhile depends on {@code jwt.refresh-token-store.degraded-mode}:
+ * <ul>
+ * <li>{@code reject}: every call fails straight away with a 503 and a {@code Retry-After}.</li>
+ * <li>{@code journal}: stores and deletions go to a bounded {@link RefreshTokenJournal} and succeed, and so do
+ * rotations of tokens that the journal issued; it is replayed into Redis in order once Redis answers again, and
+ * keeps taking writes until it is drained. Rotating any other token is rejected as in {@code reject}: only Redis
+ * knows whether it was already used, so sessions begun before the outage cannot refresh until it ends, while
+ * new sign-ins can. A token used again on this node is refused; reuse across nodes of a token issued during the
+ * outage is only caught on replay, where the late rotation is refused and the token it issued never reaches
+ * Redis, so its next refresh fails. {@link #revokeAll} is still rejected, as it could not take effect on other
+ * nodes.</li>
+ * </ul>
+ * A command that timed out may still have reached Redis: a rotation that did is refused as reuse when the client
+ * retries it, or when the journal replays it.
+ * <p>
+ * With {@code jwt.refresh-token-store.auto-batching.enabled}, stores, rotations and deletions from concurrent
+ * requests are sent to Redis together, in pipelined batches of up to {@code auto-batching.max-batch-size}
+ * commands, by a {@link RefreshTokenWriteBatcher}.
+ * <p>
+ * Metrics: {@code auth.refresh.store.breaker{state}} (1 for the current state), {@code auth.refresh.store.degraded}
+ * (calls answered without Redis, by outcome), {@code auth.refresh.store.journal} (writes waiting for replay) and,
+ * with auto-batching, {@code auth.refresh.store.batch} (writes per flush).
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-token-store.type", havingValue = "redis", matchIfMissing = true)
+public class RedisRefreshTokenStore implements RefreshTokenStore, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRefreshTokenStore.class);
+
+    public enum DegradedMode {
+        REJECT, JOURNAL
+    }
+
+    private final RedisTemplate<byte[], byte[]> redisTemplate;
+    private final boolean legacyKeysFallback;
+    private final CircuitBreaker breaker;
+    // null in reject mode
+    private final RefreshTokenJournal journal;
+    // null unless auto-batching is enabled
+    private final RefreshTokenWriteBatcher batcher;
+    private final Timer storeTimer;
+    private final Timer deleteTimer;
+    private final Timer rotateTimer;
+    private final Timer revokeAllTimer;
+    private final Counter rejected;
+    private final Counter journaled;
+
+    public RedisRefreshTokenStore(RedisTemplate<byte[], byte[]> binaryRedisTemplate, MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-token-store.legacy-keys-fallback:true}") boolean legacyKeysFallback,
+            @Value("${jwt.refresh-token-store.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${jwt.refresh-token-store.breaker.open-duration:5000}") long openDurationMillis,
+            @Value("${jwt.refresh-token-store.degraded-mode:reject}") DegradedMode degradedMode,
+            @Value("${jwt.refresh-token-store.journal.capacity:10000}") int journalCapacity,
+            @Value("${jwt.refresh-token-store.auto-batching.enabled:false}") boolean autoBatching,
+            @Value("${jwt.refresh-token-store.auto-batching.max-batch-size:64}") int maxBatchSize,
+            @Value("${jwt.refresh-token-store.timeout:250}") long timeoutMillis) {
+        this.redisTemplate = binaryRedisTemplate;
+        this.legacyKeysFallback = legacyKeysFallback;
+        this.breaker = new CircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openDurationMillis));
+        this.journal = degradedMode == DegradedMode.JOURNAL ? new RefreshTokenJournal(journalCapacity) : null;
+        this.batcher = autoBatching
+                ? new RefreshTokenWriteBatcher(binaryRedisTemplate, maxBatchSize, timeoutMillis, meterRegistry)
+                : null;
+        this.storeTimer = timer(meterRegistry, "store");
+        this.deleteTimer = timer(meterRegistry, "delete");
+        this.rotateTimer = timer(meterRegistry, "rotate");
+        this.revokeAllTimer = timer(meterRegistry, "revoke_all");
+        this.rejected = Counter.builder("auth.refresh.store.degraded").tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.journaled = Counter.builder("auth.refresh.store.degraded").tag("outcome", "journaled")
+                .register(meterRegistry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("auth.refresh.store.breaker", breaker, b -> b.getState() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        if (journal != null) {
+            Gauge.builder("auth.refresh.store.journal", journal, RefreshTokenJournal::size).register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void store(String refreshToken, String subject, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        call(storeTimer, () -> {
+            redisStore(refreshToken, subject, expiresAt);
+            return null;
+        }, journal -> journal.store(refreshToken, subject, expiresAt) ? null : journalFull());
+    }
+
+    @Override
+    public void delete(String refreshToken) {
+        call(deleteTimer, () -> {
+            redisDelete(refreshToken);
+            return null;
+        }, journal -> journal.delete(refreshToken) ? null : journalFull());
+    }
+
+    // In one round trip, keeping the old token's family
+    @Override
+    public boolean rotate(String oldRefreshToken, String newRefreshToken, String subject, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        return call(rotateTimer, () -> redisRotate(oldRefreshToken, newRefreshToken, subject, expiresAt),
+                journal -> switch (journal.rotate(oldRefreshToken, newRefreshToken, subject, expiresAt)) {
+                    case QUEUED -> true;
+                    case REUSED -> false;
+                    case UNKNOWN -> unavailable(null);
+                    case FULL -> journalFull();
+                });
+    }
+
+    // In one round trip; tokens still in the legacy key format are not counted
+    @Override
+    public long revokeAll(String subject, long ttlMillis) {
+        return call(revokeAllTimer, () -> redisRevokeAll(subject, ttlMillis), null);
+    }
+
+    /**
+     * Writes the journaled calls into Redis in order, as soon as the breaker lets a call through; stops at the
+     * first failure and resumes from there on the next run.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-store.journal.replay-interval:1000}")
+    public void replayJournal() {
+        if (journal == null || journal.isEmpty() || !breaker.tryAcquire()) {
+            return;
+        }
+        int replayed = 0;
+        int refused = 0;
+        RefreshTokenJournal.Entry entry;
+        while ((entry = journal.peek()) != null) {
+            try {
+                if (!replay(entry)) {
+                    refused++;
+                }
+            } catch (RuntimeException e) {
+                redisFailed(e);
+                log.warn("Refresh token journal replay stopped after {} writes, {} left", replayed, journal.size());
+                return;
+            }
+            redisSucceeded();
+            journal.remove(entry);
+            replayed++;
+        }
+        log.info("Replayed {} journaled refresh token writes into Redis; {} rotations refused as reused or unknown",
+                replayed, refused);
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+
+    @Override
+    public void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    // Runs redisCall unless the breaker is open or the journal still has writes to replay, in which case the
+    // journal answers through degraded, or the call is rejected if there is no journal or degraded is null
+    private <T> T call(Timer timer, Supplier<T> redisCall, Function<RefreshTokenJournal, T> degraded) {
+        long start = System.nanoTime();
+        try {
+            RuntimeException failure = null;
+            if ((journal == null || journal.isEmpty()) && breaker.tryAcquire()) {
+                try {
+                    T result = redisCall.get();
+                    redisSucceeded();
+                    return result;
+                } catch (RuntimeException e) {
+                    redisFailed(e);
+                    failure = e;
+                }
+            }
+            if (journal == null || degraded == null) {
+                return unavailable(failure);
+            }
+            T result = degraded.apply(journal);
+            journaled.increment();
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTiming.record(RequestTiming.Stage.REFRESH_STORE, elapsed);
+        }
+    }
+
+    private void redisSucceeded() {
+        if (breaker.onSuccess()) {
+            log.info("Redis answers the refresh token store again");
+        }
+    }
+
+    private void redisFailed(RuntimeException e) {
+        if (breaker.onFailure()) {
+            log.warn("Refresh token store stops calling Redis for {} ms after repeated failures: {}",
+                    TimeUnit.NANOSECONDS.toMillis(breaker.remainingOpenNanos()), e.getMessage());
+        }
+    }
+
+    private <T> T unavailable(RuntimeException cause) {
+        rejected.increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos() + 999_999_999));
+        throw new ServiceUnavailableException("Session store unavailable, please retry", retryAfter, cause);
+    }
+
+    private <T> T journalFull() {
+        return unavailable(null);
+    }
+
+    // False if a journaled rotation was refused by Redis
+    private boolean replay(RefreshTokenJournal.Entry entry) {
+        return switch (entry.operation()) {
+            case STORE -> {
+                redisStore(entry.token(), entry.subject(), entry.expiresAt());
+                yield true;
+            }
+            case ROTATE -> redisRotate(entry.token(), entry.newToken(), entry.subject(), entry.expiresAt());
+            case DELETE -> {
+                redisDelete(entry.token());
+                yield true;
+            }
+        };
+    }
+
+    private void redisStore(String refreshToken, String subject, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        byte[] digest = digest(refreshToken);
+        eval(STORE_SCRIPT, List.of(key(digest), indexKey(subject)),
+                newEntry(subject), number(expiresAt - now), digest, number(expiresAt), number(now));
+    }
+
+    private void redisDelete(String refreshToken) {
+        byte[][] keys = legacyKeysFallback
+                ? new byte[][] {key(refreshToken), legacyKey(refreshToken)}
+                : new byte[][] {key(refreshToken)};
+        if (batcher != null) {
+            batcher.delete(keys);
+        } else {
+            redisTemplate.delete(List.of(keys));
+        }
+    }
+
+    private boolean redisRotate(String oldRefreshToken, String newRefreshToken, String subject, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return false;
+        }
+        byte[] oldDigest = digest(oldRefreshToken);
+        byte[] newDigest = digest(newRefreshToken);
+        List<byte[]> keys = legacyKeysFallback
+                ? List.of(key(oldDigest), key(newDigest), indexKey(subject), legacyKey(oldRefreshToken),
+                        revokedKey(subject))
+                : List.of(key(oldDigest), key(newDigest), indexKey(subject));
+        Boolean rotated = eval(ROTATE_SCRIPT, keys,
+                number(expiresAt - now), newEntry(subject), oldDigest, newDigest, number(expiresAt), number(now));
+        return rotated != null && rotated;
+    }
+
+    private long redisRevokeAll(String subject, long ttlMillis) {
+        List<byte[]> keys = legacyKeysFallback
+                ? List.of(indexKey(subject), revokedKey(subject))
+                : List.of(indexKey(subject));
+        Long revoked = redisTemplate.execute(REVOKE_ALL_SCRIPT, RedisSerializer.byteArray(), null, keys,
+                keyPrefix(), number(System.currentTimeMillis()), number(ttlMillis));
+        return revoked != null ? revoked : 0;
+    }
+
+    // Through the batcher when auto-batching is on
+    private <T> T eval(RedisScript<T> script, List<byte[]> keys, byte[]... args) {
+        if (batcher != null) {
+            return batcher.eval(script, keys, args);
+        }
+        return redisTemplate.execute(script, RedisSerializer.byteArray(), null, keys, (Object[]) args);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.refresh.store").tag("operation", operation).register(meterRegistry);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, in-memory queue of refresh token writes made while Redis is unavailable, for
+ * {@link RedisRefreshTokenStore} to replay in order once it recovers.
+ * <p>
+ * Until the queue is drained it also answers for the tokens it has seen: a token issued here can be rotated once,
+ * and a token rotated or deleted here cannot be rotated again. Tokens it has not seen were issued before the
+ * outage or on another node; whether they are still unused is only known to Redis, so their rotation is refused
+ * rather than queued, as accepting it would let a stolen token be exchanged on every node.
+ * <p>
+ * A {@link ReentrantLock} rather than a monitor guards it, so that virtual threads never pin on it.
+ */
+class RefreshTokenJournal {
+
+    enum Operation {
+        STORE, ROTATE, DELETE
+    }
+
+    enum Rotation {
+        QUEUED,
+        // The old token was already rotated or deleted here
+        REUSED,
+        // The old token was not issued here
+        UNKNOWN,
+        FULL
+    }
+
+    // token is the token stored or deleted, or the old token of a rotation; expiresAt is in epoch millis
+    record Entry(Operation operation, String token, String newToken, String subject, long expiresAt) {
+    }
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final Set<String> issued = new HashSet<>();
+    private final Set<String> consumed = new HashSet<>();
+    // Read without the lock by the store's check for an empty journal on every call
+    private volatile int size;
+
+    RefreshTokenJournal(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues the first token of a family; false if the journal is full.
+     */
+    boolean store(String token, String subject, long expiresAt) {
+        lock.lock();
+        try {
+            if (entries.size() >= capacity) {
+                return false;
+            }
+            entries.addLast(new Entry(Operation.STORE, token, null, subject, expiresAt));
+            size = entries.size();
+            issued.add(token);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the rotation of a token issued here and not used since.
+     */
+    Rotation rotate(String oldToken, String newToken, String subject, long expiresAt) {
+        lock.lock();
+        try {
+            if (entries.size() >= capacity) {
+                return Rotation.FULL;
+            }
+            if (consumed.contains(oldToken)) {
+                return Rotation.REUSED;
+            }
+            if (!issued.contains(oldToken)) {
+                return Rotation.UNKNOWN;
+            }
+            consumed.add(oldToken);
+            entries.addLast(new Entry(Operation.ROTATE, oldToken, newToken, subject, expiresAt));
+            size = entries.size();
+            issued.add(newToken);
+            return Rotation.QUEUED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a deletion; false if the journal is full.
+     */
+    boolean delete(String token) {
+        lock.lock();
+        try {
+            if (entries.size() >= capacity) {
+                return false;
+            }
+            entries.addLast(new Entry(Operation.DELETE, token, null, null, 0));
+            size = entries.size();
+            consumed.add(token);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Entry peek() {
+        lock.lock();
+        try {
+            return entries.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes the entry peek() returned once it has been replayed; the journal forgets its tokens when empty
+    void remove(Entry entry) {
+        lock.lock();
+        try {
+            if (entries.peekFirst() == entry) {
+                entries.removeFirst();
+                size = entries.size();
+            }
+            if (entries.isEmpty()) {
+                issued.clear();
+                consumed.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
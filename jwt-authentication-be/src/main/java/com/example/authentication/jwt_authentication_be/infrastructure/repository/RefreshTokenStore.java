@@ -1,33 +1,29 @@
 package com.example.authentication.jwt_authentication_be.infrastructure.repository;
 
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.stereotype.Component;
-
-import java.util.concurrent.TimeUnit;
-
-@Component
-public class RefreshTokenStore {
-
-    private static final String PREFIX = "rt:";
-    private final StringRedisTemplate redisTemplate;
-
-    public RefreshTokenStore(StringRedisTemplate redisTemplate) {
-        this.redisTemplate = redisTemplate;
-    }
-
-    public void store(String refreshToken, long ttlMillis) {
-        String key = PREFIX + refreshToken;
-        redisTemplate.opsForValue().set(key, "1", ttlMillis, TimeUnit.MILLISECONDS);
-    }
-
-    public boolean exists(String refreshToken) {
-        String key = PREFIX + refreshToken;
-        Boolean exists = redisTemplate.hasKey(key);
-        return exists != null && exists;
-    }
-
-    public void delete(String refreshToken) {
-        String key = PREFIX + refreshToken;
-        redisTemplate.delete(key);
-    }
+/**
+ * Refresh tokens that may still be exchanged, until they expire or are used.
+ * <p>
+ * {@code jwt.refresh-token-store.type} picks the backend: {@code redis} ({@link RedisRefreshTokenStore}, the
+ * default), shared by every node, or {@code memory} ({@link InMemoryRefreshTokenStore}), local to a single node.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores the first refresh token of a new family, e.g. on login.
+     */
+    void store(String refreshToken, String subject, long ttlMillis);
+
+    void delete(String refreshToken);
+
+    /**
+     * Replaces {@code oldRefreshToken} with {@code newRefreshToken} atomically. Returns false, storing nothing,
+     * if the old token was unknown or already used.
+     */
+    boolean rotate(String oldRefreshToken, String newRefreshToken, String subject, long ttlMillis);
+
+    /**
+     * Revokes every refresh token of {@code subject} and returns how many were revoked. {@code ttlMillis} is the
+     * lifetime of a refresh token, the longest the revocation has to hold.
+     */
+    long revokeAll(String subject, long ttlMillis);
 }
@@ -0,0 +1,397 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-capacity, off-heap table of refresh tokens for {@link InMemoryRefreshTokenStore}: no object per token,
+ * and a memory budget set once by the maximum number of tokens.
+ * <p>
+ * Tokens are keyed by the first 16 bytes of their SHA-256 digest, in an open-addressing table with linear
+ * probing and backward-shift deletion (no tombstones), filled to at most {@value #LOAD_FACTOR}. Each 48-byte
+ * slot holds the digest, the expiry time, a 64-bit hash of the owner and four links: one list per owner, whose
+ * heads sit in a second open-addressing table of 12-byte slots, so that all of a user's tokens are found without
+ * a scan, and one list per bucket of a hierarchical timing wheel, which finds expired tokens without a scan too.
+ * <p>
+ * The wheel has {@value #WHEEL_LEVELS} levels of {@value #WHEEL_SIZE} buckets, each level's bucket spanning
+ * {@value #WHEEL_SIZE} of the level below; with a 1 s tick the top level spans 34 years. A token goes into the
+ * lowest level whose span still covers its expiry, and moves down a level each time the wheel reaches its
+ * bucket, until it expires from the first level on the tick it is due.
+ * <p>
+ * Links are stored as slot + 1, so that 0 means none; a list's first element links back to its head as the
+ * negated (owner slot or bucket) + 1. Not thread-safe.
+ */
+class RefreshTokenTable {
+
+    static final double LOAD_FACTOR = 0.75;
+    // Bytes per token in a snapshot: digest, expiry, owner
+    static final int RECORD_BYTES = 32;
+
+    private static final int SLOT_BYTES = 48;
+    private static final int DIGEST_HI = 0;
+    private static final int DIGEST_LO = 8;
+    private static final int EXPIRES_AT = 16;
+    private static final int OWNER = 24;
+    private static final int OWNER_PREV = 32;
+    private static final int OWNER_NEXT = 36;
+    private static final int TIMER_PREV = 40;
+    private static final int TIMER_NEXT = 44;
+
+    private static final int OWNER_SLOT_BYTES = 12;
+    private static final int OWNER_KEY = 0;
+    private static final int OWNER_HEAD = 8;
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_LEVELS = 5;
+
+    private final int maxTokens;
+    private final int capacity;
+    private final ByteBuffer slots;
+    private final ByteBuffer owners;
+    private final long tickMillis;
+    private final int[] buckets = new int[WHEEL_LEVELS * WHEEL_SIZE];
+    // The next tick the wheel will expire
+    private long nextTick;
+    private int size;
+
+    RefreshTokenTable(int maxTokens, long tickMillis, long now) {
+        long capacity = (long) Math.ceil(maxTokens / LOAD_FACTOR) + 1;
+        if (maxTokens < 1 || capacity * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Refresh token table can hold 1 to "
+                    + (long) (Integer.MAX_VALUE / SLOT_BYTES * LOAD_FACTOR) + " tokens, not " + maxTokens);
+        }
+        this.maxTokens = maxTokens;
+        this.capacity = (int) capacity;
+        this.slots = ByteBuffer.allocateDirect(this.capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.owners = ByteBuffer.allocateDirect(this.capacity * OWNER_SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.tickMillis = Math.max(1, tickMillis);
+        this.nextTick = now / this.tickMillis + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int maxTokens() {
+        return maxTokens;
+    }
+
+    // Off-heap memory taken, whatever the number of tokens
+    long bytes() {
+        return (long) capacity * (SLOT_BYTES + OWNER_SLOT_BYTES);
+    }
+
+    /**
+     * Stores a token, replacing its expiry and owner if it is already there; false if the table is full.
+     */
+    boolean put(long digestHi, long digestLo, long owner, long expiresAt) {
+        int slot = home(digestLo);
+        while (!isEmpty(slot)) {
+            if (slots.getLong(offset(slot) + DIGEST_HI) == digestHi
+                    && slots.getLong(offset(slot) + DIGEST_LO) == digestLo) {
+                unlinkOwner(slot);
+                unlinkTimer(slot);
+                write(slot, digestHi, digestLo, owner, expiresAt);
+                return true;
+            }
+            slot = next(slot);
+        }
+        if (size >= maxTokens) {
+            return false;
+        }
+        write(slot, digestHi, digestLo, owner, expiresAt);
+        size++;
+        return true;
+    }
+
+    /**
+     * Expiry time of a stored token, or 0 if it isn't stored. Expired tokens stay until the wheel reaches them.
+     */
+    long expiresAt(long digestHi, long digestLo) {
+        int slot = find(digestHi, digestLo);
+        return slot < 0 ? 0 : slots.getLong(offset(slot) + EXPIRES_AT);
+    }
+
+    /**
+     * Removes a token and returns its expiry time, or 0 if it wasn't stored.
+     */
+    long remove(long digestHi, long digestLo) {
+        int slot = find(digestHi, digestLo);
+        if (slot < 0) {
+            return 0;
+        }
+        long expiresAt = slots.getLong(offset(slot) + EXPIRES_AT);
+        delete(slot);
+        return expiresAt;
+    }
+
+    /**
+     * Removes every token of an owner and returns how many had not expired by {@code now}.
+     */
+    int removeOwner(long owner, long now) {
+        int ownerSlot = findOwner(owner);
+        int removed = 0;
+        // Deleting the owner's last token also drops its entry, so the head is looked up again each time
+        while (ownerSlot >= 0) {
+            int slot = owners.getInt(ownerOffset(ownerSlot) + OWNER_HEAD) - 1;
+            if (slots.getLong(offset(slot) + EXPIRES_AT) > now) {
+                removed++;
+            }
+            delete(slot);
+            ownerSlot = findOwner(owner);
+        }
+        return removed;
+    }
+
+    /**
+     * Moves the wheel up to {@code now}, removing the tokens that expired meanwhile, and returns how many.
+     */
+    int advance(long now) {
+        long nowTick = now / tickMillis;
+        if (size == 0) {
+            nextTick = Math.max(nextTick, nowTick + 1);
+            return 0;
+        }
+        int expired = 0;
+        for (; nextTick <= nowTick; nextTick++) {
+            // Higher levels first: a token can move down several levels on the same tick
+            for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+                if ((nextTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    int bucket = level * WHEEL_SIZE + (int) ((nextTick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1));
+                    while (buckets[bucket] != 0) {
+                        int slot = buckets[bucket] - 1;
+                        unlinkTimer(slot);
+                        linkTimer(slot, slots.getLong(offset(slot) + EXPIRES_AT));
+                    }
+                }
+            }
+            int bucket = (int) (nextTick & (WHEEL_SIZE - 1));
+            while (buckets[bucket] != 0) {
+                delete(buckets[bucket] - 1);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Writes every stored token as a {@value #RECORD_BYTES}-byte record and returns how many were written.
+     */
+    int writeTo(ByteBuffer out) {
+        int written = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isEmpty(slot)) {
+                int offset = offset(slot);
+                out.putLong(slots.getLong(offset + DIGEST_HI))
+                        .putLong(slots.getLong(offset + DIGEST_LO))
+                        .putLong(slots.getLong(offset + EXPIRES_AT))
+                        .putLong(slots.getLong(offset + OWNER));
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Reads one record written by {@link #writeTo}; false if it had expired by {@code now} or the table is full.
+     */
+    boolean readFrom(ByteBuffer in, long now) {
+        long digestHi = in.getLong();
+        long digestLo = in.getLong();
+        long expiresAt = in.getLong();
+        long owner = in.getLong();
+        return expiresAt > now && put(digestHi, digestLo, owner, expiresAt);
+    }
+
+    private void write(int slot, long digestHi, long digestLo, long owner, long expiresAt) {
+        int offset = offset(slot);
+        slots.putLong(offset + DIGEST_HI, digestHi);
+        slots.putLong(offset + DIGEST_LO, digestLo);
+        slots.putLong(offset + EXPIRES_AT, expiresAt);
+        slots.putLong(offset + OWNER, owner);
+        linkOwner(slot, owner);
+        linkTimer(slot, expiresAt);
+    }
+
+    private int find(long digestHi, long digestLo) {
+        for (int slot = home(digestLo); !isEmpty(slot); slot = next(slot)) {
+            if (slots.getLong(offset(slot) + DIGEST_HI) == digestHi
+                    && slots.getLong(offset(slot) + DIGEST_LO) == digestLo) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void delete(int slot) {
+        unlinkOwner(slot);
+        unlinkTimer(slot);
+        size--;
+        // Backward shift: pull later entries of the probe sequence into the hole unless that would move them
+        // before their home slot
+        int hole = slot;
+        for (int candidate = next(slot); !isEmpty(candidate); candidate = next(candidate)) {
+            if (!cyclicallyBetween(hole, home(slots.getLong(offset(candidate) + DIGEST_LO)), candidate)) {
+                move(candidate, hole);
+                hole = candidate;
+            }
+        }
+        for (int i = 0; i < SLOT_BYTES; i += Long.BYTES) {
+            slots.putLong(offset(hole) + i, 0);
+        }
+    }
+
+    // Copies a slot and points its neighbours and list heads at the copy
+    private void move(int from, int to) {
+        for (int i = 0; i < SLOT_BYTES; i += Long.BYTES) {
+            slots.putLong(offset(to) + i, slots.getLong(offset(from) + i));
+        }
+        int ownerPrev = slots.getInt(offset(to) + OWNER_PREV);
+        if (ownerPrev > 0) {
+            slots.putInt(offset(ownerPrev - 1) + OWNER_NEXT, to + 1);
+        } else {
+            owners.putInt(ownerOffset(-ownerPrev - 1) + OWNER_HEAD, to + 1);
+        }
+        int ownerNext = slots.getInt(offset(to) + OWNER_NEXT);
+        if (ownerNext != 0) {
+            slots.putInt(offset(ownerNext - 1) + OWNER_PREV, to + 1);
+        }
+        int timerPrev = slots.getInt(offset(to) + TIMER_PREV);
+        if (timerPrev > 0) {
+            slots.putInt(offset(timerPrev - 1) + TIMER_NEXT, to + 1);
+        } else {
+            buckets[-timerPrev - 1] = to + 1;
+        }
+        int timerNext = slots.getInt(offset(to) + TIMER_NEXT);
+        if (timerNext != 0) {
+            slots.putInt(offset(timerNext - 1) + TIMER_PREV, to + 1);
+        }
+    }
+
+    private void linkOwner(int slot, long owner) {
+        int ownerSlot = ownerHome(owner);
+        while (owners.getInt(ownerOffset(ownerSlot) + OWNER_HEAD) != 0
+                && owners.getLong(ownerOffset(ownerSlot) + OWNER_KEY) != owner) {
+            ownerSlot = next(ownerSlot);
+        }
+        int head = owners.getInt(ownerOffset(ownerSlot) + OWNER_HEAD);
+        if (head != 0) {
+            slots.putInt(offset(head - 1) + OWNER_PREV, slot + 1);
+        }
+        slots.putInt(offset(slot) + OWNER_PREV, -(ownerSlot + 1));
+        slots.putInt(offset(slot) + OWNER_NEXT, head);
+        owners.putLong(ownerOffset(ownerSlot) + OWNER_KEY, owner);
+        owners.putInt(ownerOffset(ownerSlot) + OWNER_HEAD, slot + 1);
+    }
+
+    private void unlinkOwner(int slot) {
+        int prev = slots.getInt(offset(slot) + OWNER_PREV);
+        int next = slots.getInt(offset(slot) + OWNER_NEXT);
+        if (next != 0) {
+            slots.putInt(offset(next - 1) + OWNER_PREV, prev);
+        }
+        if (prev > 0) {
+            slots.putInt(offset(prev - 1) + OWNER_NEXT, next);
+        } else if (next != 0) {
+            owners.putInt(ownerOffset(-prev - 1) + OWNER_HEAD, next);
+        } else {
+            deleteOwner(-prev - 1);
+        }
+    }
+
+    private int findOwner(long owner) {
+        for (int ownerSlot = ownerHome(owner); owners.getInt(ownerOffset(ownerSlot) + OWNER_HEAD) != 0;
+                ownerSlot = next(ownerSlot)) {
+            if (owners.getLong(ownerOffset(ownerSlot) + OWNER_KEY) == owner) {
+                return ownerSlot;
+            }
+        }
+        return -1;
+    }
+
+    private void deleteOwner(int ownerSlot) {
+        int hole = ownerSlot;
+        for (int candidate = next(ownerSlot); owners.getInt(ownerOffset(candidate) + OWNER_HEAD) != 0;
+                candidate = next(candidate)) {
+            if (!cyclicallyBetween(hole, ownerHome(owners.getLong(ownerOffset(candidate) + OWNER_KEY)), candidate)) {
+                long owner = owners.getLong(ownerOffset(candidate) + OWNER_KEY);
+                int head = owners.getInt(ownerOffset(candidate) + OWNER_HEAD);
+                owners.putLong(ownerOffset(hole) + OWNER_KEY, owner);
+                owners.putInt(ownerOffset(hole) + OWNER_HEAD, head);
+                slots.putInt(offset(head - 1) + OWNER_PREV, -(hole + 1));
+                hole = candidate;
+            }
+        }
+        owners.putLong(ownerOffset(hole) + OWNER_KEY, 0);
+        owners.putInt(ownerOffset(hole) + OWNER_HEAD, 0);
+    }
+
+    private void linkTimer(int slot, long expiresAt) {
+        int bucket = bucket(Math.ceilDiv(expiresAt, tickMillis));
+        int head = buckets[bucket];
+        if (head != 0) {
+            slots.putInt(offset(head - 1) + TIMER_PREV, slot + 1);
+        }
+        slots.putInt(offset(slot) + TIMER_PREV, -(bucket + 1));
+        slots.putInt(offset(slot) + TIMER_NEXT, head);
+        buckets[bucket] = slot + 1;
+    }
+
+    private void unlinkTimer(int slot) {
+        int prev = slots.getInt(offset(slot) + TIMER_PREV);
+        int next = slots.getInt(offset(slot) + TIMER_NEXT);
+        if (next != 0) {
+            slots.putInt(offset(next - 1) + TIMER_PREV, prev);
+        }
+        if (prev > 0) {
+            slots.putInt(offset(prev - 1) + TIMER_NEXT, next);
+        } else {
+            buckets[-prev - 1] = next;
+        }
+    }
+
+    // The lowest level whose current span, the one nextTick is in, also holds the expiry tick
+    private int bucket(long tick) {
+        long due = Math.max(tick, nextTick);
+        for (int level = 0; level < WHEEL_LEVELS; level++) {
+            int shift = WHEEL_BITS * (level + 1);
+            if (due >>> shift == nextTick >>> shift) {
+                return level * WHEEL_SIZE + (int) ((due >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1));
+            }
+        }
+        // Beyond the top level's span: the top bucket the wheel reaches last, which places it again
+        int top = WHEEL_LEVELS - 1;
+        return top * WHEEL_SIZE + (int) (((nextTick >>> (WHEEL_BITS * top)) - 1) & (WHEEL_SIZE - 1));
+    }
+
+    private boolean isEmpty(int slot) {
+        return slots.getLong(offset(slot) + EXPIRES_AT) == 0;
+    }
+
+    // Digests and owner hashes are uniformly distributed already; this maps one onto [0, capacity)
+    private int home(long hash) {
+        return (int) (((hash >>> 32) * capacity) >>> 32);
+    }
+
+    private int ownerHome(long owner) {
+        return home(owner);
+    }
+
+    private int next(int slot) {
+        return slot + 1 == capacity ? 0 : slot + 1;
+    }
+
+    // Whether home lies in (hole, slot], going round the end of the table
+    private static boolean cyclicallyBetween(int hole, int home, int slot) {
+        return hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+    }
+
+    private static int offset(int slot) {
+        return slot * SLOT_BYTES;
+    }
+
+    private static int ownerOffset(int ownerSlot) {
+        return ownerSlot * OWNER_SLOT_BYTES;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces refresh token writes from concurrent request threads into pipelined batches for
+ * {@link RedisRefreshTokenStore}.
+ * <p>
+ * Callers queue a command and wait for its result. A single flusher thread takes everything queued, up to
+ * {@code maxBatchSize} commands, sends it as one pipeline and hands out the replies, so batches are only as large
+ * as the traffic makes them: a lone write costs one round trip, as before, while writes that arrive during a
+ * flush share the next one instead of each paying for a write and a read on both ends. Commands run in the order
+ * they were queued.
+ * <p>
+ * Scripts are sent with {@code EVALSHA}; when Redis has lost them (e.g. after a restart) the affected commands are
+ * retried one by one through {@link RedisTemplate}, which loads them again.
+ * <p>
+ * A caller waits at most twice the connection's command timeout, for the batch in flight and then its own, and
+ * gets a {@link QueryTimeoutException} after that, as it would for a command of its own. Once closed, commands
+ * still queued and any submitted later run one by one through {@link RedisTemplate}.
+ */
+class RefreshTokenWriteBatcher implements AutoCloseable {
+
+    private record Write(Consumer<RedisConnection> command, Supplier<Object> fallback,
+            CompletableFuture<Object> result) {
+    }
+
+    private final RedisTemplate<byte[], byte[]> redisTemplate;
+    private final int maxBatchSize;
+    private final long waitMillis;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSize;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    RefreshTokenWriteBatcher(RedisTemplate<byte[], byte[]> redisTemplate, int maxBatchSize,
+            long commandTimeoutMillis, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.waitMillis = 2 * commandTimeoutMillis;
+        this.batchSize = DistributionSummary.builder("auth.refresh.store.batch")
+                .description("Refresh token writes per pipelined flush")
+                .register(meterRegistry);
+        // A platform thread: it spends its time waiting for Redis replies, one batch at a time
+        this.flusher = Thread.ofPlatform().name("refresh-token-batcher").daemon().start(this::run);
+    }
+
+    <T> T eval(RedisScript<T> script, List<byte[]> keys, byte[]... args) {
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        keys.toArray(keysAndArgs);
+        System.arraycopy(args, 0, keysAndArgs, keys.size(), args.length);
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+        return submit(
+                connection -> connection.scriptingCommands().evalSha(script.getSha1(), returnType, keys.size(),
+                        keysAndArgs),
+                () -> redisTemplate.execute(script, RedisSerializer.byteArray(), null, keys, (Object[]) args));
+    }
+
+    Long delete(byte[]... keys) {
+        return submit(connection -> connection.keyCommands().del(keys), () -> redisTemplate.delete(List.of(keys)));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flusher.interrupt();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T submit(Consumer<RedisConnection> command, Supplier<?> fallback) {
+        if (closed) {
+            return (T) fallback.get();
+        }
+        Write write = new Write(command, (Supplier<Object>) fallback, new CompletableFuture<>());
+        queue.add(write);
+        // Closed meanwhile, maybe after the flusher's last look at the queue: whoever takes the write out runs it
+        if (closed && queue.remove(write)) {
+            return (T) fallback.get();
+        }
+        try {
+            return (T) write.result().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Not sent yet if it is still queued; if it was, it may still reach Redis, as a timed out command may
+            queue.remove(write);
+            throw new QueryTimeoutException("Refresh token write not answered within " + waitMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(write);
+            throw new IllegalStateException("Interrupted waiting for a refresh token write", e);
+        }
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+        Write write;
+        while ((write = queue.poll()) != null) {
+            retry(write);
+        }
+    }
+
+    private void flush(List<Write> batch) {
+        batchSize.record(batch.size());
+        List<Object> replies;
+        RuntimeException pipelineFailure = null;
+        try {
+            replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach(write -> write.command().accept(connection));
+                return null;
+            });
+        } catch (RedisPipelineException e) {
+            // Replies of the commands that went through, with the failed ones' exceptions in their place; none
+            // at all if the pipeline timed out
+            replies = e.getPipelineResult();
+            pipelineFailure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (RuntimeException e) {
+            batch.forEach(write -> write.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Write write = batch.get(i);
+            Object reply = i < replies.size() ? replies.get(i) : pipelineFailure;
+            if (reply instanceof Throwable failure) {
+                if (isNoScript(failure)) {
+                    retry(write);
+                } else {
+                    write.result().completeExceptionally(failure);
+                }
+            } else {
+                write.result().complete(reply);
+            }
+        }
+    }
+
+    private static void retry(Write write) {
+        try {
+            write.result().complete(write.fallback().get());
+        } catch (RuntimeException e) {
+            write.result().completeExceptionally(e);
+        }
+    }
+
+    private static boolean isNoScript(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
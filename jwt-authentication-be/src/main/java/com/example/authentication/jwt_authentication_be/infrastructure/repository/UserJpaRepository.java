@@ -1,14 +1,43 @@
 package com.example.authentication.jwt_authentication_be.infrastructure.repository;
 
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
 import com.example.authentication.jwt_authentication_be.infrastructure.entity.user.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmail(String email);
+
+    // Constructor expressions return unmanaged values: nothing enters the persistence context, so there is no
+    // snapshot to keep, nothing to dirty-check at commit and no entity to map afterwards
+    @Transactional(readOnly = true)
+    @Query("select new com.example.authentication.jwt_authentication_be.domain.model.UserCredentials("
+            + "u.id, u.firstName, u.lastName, u.email, u.password) from UserEntity u where u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.authentication.jwt_authentication_be.domain.model.UserProfile("
+            + "u.id, u.firstName, u.lastName, u.email) from UserEntity u where u.email = :email")
+    Optional<UserProfile> findProfileByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
+
     boolean existsByEmail(String email);
     void deleteByEmail(String email);
+
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
 }
@@ -2,21 +2,54 @@ package com.example.authentication.jwt_authentication_be.infrastructure.reposito
 
 import com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository;
 import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
 import com.example.authentication.jwt_authentication_be.infrastructure.entity.user.UserEntity;
 import com.example.authentication.jwt_authentication_be.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public class UserRepository implements IUserRepository {
 
+    // Plain JDBC: the ids are left to the identity column, so the rows need no managed entities and batch
+    // freely (Hibernate itself can't batch IDENTITY inserts)
+    private static final String INSERT_SQL =
+            "INSERT INTO users (first_name, last_name, email, password) VALUES (?, ?, ?, ?)";
+    // Keyset pagination: the primary key index seeks straight to the page, however deep it is
+    private static final String PAGE_SQL =
+            "SELECT id, first_name, last_name, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ALL_SQL = "SELECT id, first_name, last_name, email FROM users ORDER BY id";
+    private static final RowMapper<User> PROFILE_MAPPER = (resultSet, rowNum) -> User.builder()
+            .id(resultSet.getLong("id"))
+            .firstName(resultSet.getString("first_name"))
+            .lastName(resultSet.getString("last_name"))
+            .email(resultSet.getString("email"))
+            .build();
+
     private final UserJpaRepository jpaRepository;
     private final UserMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final int exportFetchSize;
 
-    public UserRepository(UserJpaRepository jpaRepository, UserMapper mapper) {
+    public UserRepository(UserJpaRepository jpaRepository, UserMapper mapper, JdbcTemplate jdbcTemplate,
+            @Value("${user-export.fetch-size:1000}") int exportFetchSize) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportFetchSize = exportFetchSize;
     }
 
     @Override
@@ -31,6 +64,21 @@ public class UserRepository implements IUserRepository {
                 .orElse(null);
     }
 
+    @Override
+    public UserCredentials findCredentialsByEmail(String email) {
+        return jpaRepository.findCredentialsByEmail(email).orElse(null);
+    }
+
+    @Override
+    public UserProfile findProfileByEmail(String email) {
+        return jpaRepository.findProfileByEmail(email).orElse(null);
+    }
+
+    @Override
+    public void updatePassword(String email, String password) {
+        jpaRepository.updatePasswordByEmail(email, password);
+    }
+
     @Override
     public User save(User user) {
         UserEntity entity = mapper.toEntity(user);
@@ -56,16 +104,54 @@ public class UserRepository implements IUserRepository {
     }
 
     @Override
+    @Deprecated
     public Iterable<User> findAll() {
         return jpaRepository.findAll().stream()
                 .map(mapper::toDomain)
                 .toList();
     }
 
+    @Override
+    public List<User> findPageAfter(long afterId, int limit) {
+        return jdbcTemplate.query(PAGE_SQL, PROFILE_MAPPER, afterId, limit);
+    }
+
+    // The transaction turns autocommit off, without which the PostgreSQL driver ignores the fetch size and
+    // reads the whole result at once
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<User> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ALL_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportFetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(PROFILE_MAPPER.mapRow(resultSet, 0)));
+    }
+
     @Override
     public long count() {
         return jpaRepository.count();
     }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jpaRepository.findEmailsIn(emails));
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<User> users) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (statement, user) -> {
+            statement.setString(1, user.getFirstName());
+            statement.setString(2, user.getLastName());
+            statement.setString(3, user.getEmail());
+            statement.setString(4, user.getPassword());
+        });
+    }
 }
 
 
@@ -0,0 +1,74 @@
+package com.example.authentication.jwt_authentication_be.presentation.controller;
+
+import com.example.authentication.jwt_authentication_be.application.service.UserImportService;
+import com.example.authentication.jwt_authentication_be.application.service.UserService;
+import com.example.authentication.jwt_authentication_be.common.ApiResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserImportResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserPageResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// ROLE_ADMIN only (security.admin-emails), see SecurityConfig
+@RestController
+@RequestMapping("/api/admin/users")
+@CrossOrigin(origins = "*")
+public class AdminUserController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+
+    public AdminUserController(UserService userService, UserImportService userImportService,
+            ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<UserPageResponse>> listUsers(@RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        UserPageResponse page = userService.listUsers(after, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, page, "Users retrieved successfully"));
+    }
+
+    // One JSON user per line, written as the rows come off the database cursor. Written synchronously rather
+    // than as a StreamingResponseBody, so a long export isn't cut off by the async request timeout
+    @GetMapping(path = "/export", produces = NDJSON)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            userService.exportUsers(user -> {
+                try {
+                    generator.writeObject(user);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    // The body is streamed, not buffered: rows are imported batch by batch as they arrive
+    @PostMapping(path = "/import", consumes = { "text/csv", NDJSON })
+    public ResponseEntity<ApiResponse<UserImportResponse>> importUsers(
+            @RequestHeader("Content-Type") MediaType contentType, InputStream body) throws IOException {
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        UserImportResponse result = userImportService.importUsers(body, format);
+        return ResponseEntity.ok(new ApiResponse<>(true, result, "Imported " + result.getImported() + " of "
+                + result.getTotal() + " users"));
+    }
+}
@@ -7,6 +7,7 @@ import com.example.authentication.jwt_authentication_be.presentation.dto.LoginRe
 import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenRequest;
 import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenResponse;
 import com.example.authentication.jwt_authentication_be.presentation.dto.RegisterRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,8 +25,9 @@ public class AuthenticationController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authenticationService.login(request);
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        LoginResponse response = authenticationService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(new ApiResponse<>(true, response, "Login successful"));
     }
 
@@ -0,0 +1,86 @@
+package com.example.authentication.jwt_authentication_be.presentation.controller;
+
+import com.example.authentication.jwt_authentication_be.utils.JwtKeyRing;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Publishes the public halves of the asymmetric signing keys so other services can verify access tokens
+ * locally. The document is rendered once per key ring version and served with a strong ETag, so
+ * conditional requests from verifiers get a 304 without any work.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
+    private volatile JwksDocument document;
+
+    public JwksController(JwtKeyRing keyRing, @Value("${jwt.jwks.max-age:300}") long maxAgeSeconds) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks() {
+        JwksDocument current = currentDocument();
+        // Spring answers If-None-Match with 304 based on the ETag of the returned entity
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .eTag(current.etag())
+                .body(current.body());
+    }
+
+    private JwksDocument currentDocument() {
+        JwksDocument current = document;
+        long version = keyRing.getVersion();
+        if (current == null || current.version() != version) {
+            current = render(version, keyRing.getPublicKeys());
+            document = current;
+        }
+        return current;
+    }
+
+    private static JwksDocument render(long version, Map<String, PublicKey> publicKeys) {
+        StringJoiner keys = new StringJoiner(",", "{\"keys\":[", "]}");
+        publicKeys.forEach((kid, publicKey) -> {
+            PublicJwk<?> jwk = Jwks.builder()
+                    .key(publicKey)
+                    .id(kid)
+                    .algorithm("EC".equals(publicKey.getAlgorithm()) ? "ES256" : "EdDSA")
+                    .publicKeyUse("sig")
+                    .build();
+            keys.add(Jwks.json(jwk));
+        });
+        byte[] body = keys.toString().getBytes(StandardCharsets.UTF_8);
+        return new JwksDocument(version, body, "\"" + sha256(body) + "\"");
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record JwksDocument(long version, byte[] body, String etag) {
+    }
+}
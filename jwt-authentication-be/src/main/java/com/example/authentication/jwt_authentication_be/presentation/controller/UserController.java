@@ -1,11 +1,13 @@
 package com.example.authentication.jwt_authentication_be.presentation.controller;
 
+import com.example.authentication.jwt_authentication_be.application.service.AuthenticationService;
 import com.example.authentication.jwt_authentication_be.application.service.UserService;
 import com.example.authentication.jwt_authentication_be.common.ApiResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenRequest;
 import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
-import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import com.example.authentication.jwt_authentication_be.common.exception.UnauthorizedException;
 
@@ -15,34 +17,42 @@ import com.example.authentication.jwt_authentication_be.common.exception.Unautho
 public class UserController {
 
     private final UserService userService;
-    private final JwtUtil jwtUtil;
+    private final AuthenticationService authenticationService;
 
-    public UserController(UserService userService, JwtUtil jwtUtil) {
+    public UserController(UserService userService, AuthenticationService authenticationService) {
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
+        this.authenticationService = authenticationService;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ApiResponse<UserDto>> getCurrentUser(HttpServletRequest request) {
-        String token = extractTokenFromRequest(request);
+    public ResponseEntity<ApiResponse<UserDto>> getCurrentUser(@AuthenticationPrincipal VerifiedToken token) {
+        // Signature and expiry were already checked once by JwtAuthenticationFilter
         if (token == null) {
             throw new UnauthorizedException("Missing authorization token");
         }
 
-        String email = jwtUtil.extractUsername(token);
-        if (!jwtUtil.validateToken(token, email)) {
-            throw new UnauthorizedException("Invalid or expired token");
+        UserDto user = userService.getCurrentUser(token);
+        return ResponseEntity.ok(new ApiResponse<>(true, user, "User retrieved successfully"));
+    }
+
+    @PostMapping("/me/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@AuthenticationPrincipal VerifiedToken token,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        if (token == null) {
+            throw new UnauthorizedException("Missing authorization token");
         }
 
-        UserDto user = userService.getUserByEmail(email);
-        return ResponseEntity.ok(new ApiResponse<>(true, user, "User retrieved successfully"));
+        authenticationService.logout(token, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(new ApiResponse<>(true, null, "Logged out successfully"));
     }
 
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+    @PostMapping("/me/logout-all")
+    public ResponseEntity<ApiResponse<Long>> logoutEverywhere(@AuthenticationPrincipal VerifiedToken token) {
+        if (token == null) {
+            throw new UnauthorizedException("Missing authorization token");
         }
-        return null;
+
+        long revoked = authenticationService.logoutEverywhere(token.getSubject());
+        return ResponseEntity.ok(new ApiResponse<>(true, revoked, "Logged out from all devices"));
     }
 }
@@ -172,7 +172,22 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .message(ex.getMessage())
                 .path(request.getRequestURI())
                 .build();
-        return ResponseEntity.status(status).body(body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        Long retryAfterSeconds = retryAfterOf(ex);
+        if (retryAfterSeconds != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.body(body);
+    }
+
+    private static Long retryAfterOf(AppException ex) {
+        if (ex instanceof TooManyRequestsException tooMany) {
+            return tooMany.getRetryAfterSeconds();
+        }
+        if (ex instanceof ServiceUnavailableException unavailable) {
+            return unavailable.getRetryAfterSeconds();
+        }
+        return null;
     }
 
     // 500 - Fallback
@@ -0,0 +1,112 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against Redis on {@code -Dredis.host} (localhost) and {@code -Dredis.port} (6379) when it is reachable.
+ */
+class CachingUserRepositoryTests {
+
+    private final String email = "cache-tests-" + UUID.randomUUID() + "@example.com";
+    private final long id = Math.abs(UUID.randomUUID().getMostSignificantBits());
+    private final AtomicReference<String> storedPassword = new AtomicReference<>("old-hash");
+    private final UserRepository database = mock(UserRepository.class);
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private CachingUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(System.getProperty("redis.host", "localhost"),
+                        Integer.getInteger("redis.port", 6379)),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofSeconds(2)).build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        assumeTrue(redisReachable(), "Redis is not reachable");
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        doAnswer(invocation -> {
+            storedPassword.set(invocation.getArgument(1));
+            return null;
+        }).when(database).updatePassword(anyString(), anyString());
+        repository = new CachingUserRepository(database, mock(AccessTokenDenylist.class), redisTemplate,
+                new ObjectMapper(), mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(),
+                true, 100, 60_000, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (redisTemplate != null) {
+            redisTemplate.delete(List.of("user:email:" + email, "user:id:" + id,
+                    "user:gen:email:" + email, "user:gen:id:" + id));
+        }
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void missThatReadBeforeAConcurrentUpdateDoesNotCacheWhatItRead() throws Exception {
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        when(database.findCredentialsByEmail(email)).thenAnswer(invocation -> {
+            UserCredentials user = credentials(storedPassword.get());
+            if (reads.incrementAndGet() == 1) {
+                // The first miss has read the old row; the update runs and evicts before it caches it
+                read.countDown();
+                assertThat(updated.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            return user;
+        });
+
+        CompletableFuture<User> miss = CompletableFuture.supplyAsync(() -> repository.findByEmail(email));
+        assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+        repository.updatePassword(email, "new-hash");
+        updated.countDown();
+        assertThat(miss.get(5, TimeUnit.SECONDS).getPassword()).isEqualTo("old-hash");
+
+        assertThat(repository.getLocalCache().getIfPresent("user:email:" + email)).isNull();
+        assertThat(redisTemplate.opsForValue().get("user:email:" + email)).isNull();
+        assertThat(repository.findByEmail(email).getPassword()).isEqualTo("new-hash");
+        assertThat(repository.findCredentialsByEmail(email).password()).isEqualTo("new-hash");
+    }
+
+    private UserCredentials credentials(String password) {
+        return new UserCredentials(id, "Cache", "Tests", email, password);
+    }
+
+    private boolean redisReachable() {
+        try (var connection = connectionFactory.getConnection()) {
+            return "PONG".equals(connection.ping());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
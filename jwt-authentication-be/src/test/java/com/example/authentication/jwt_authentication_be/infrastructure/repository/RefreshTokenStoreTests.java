@@ -0,0 +1,162 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The redis case runs against Redis on {@code -Dredis.host} (localhost) and {@code -Dredis.port} (6379) when it
+ * is reachable.
+ */
+class RefreshTokenStoreTests {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    private final String subject = "store-tests-" + UUID.randomUUID() + "@example.com";
+    private LettuceConnectionFactory connectionFactory;
+    // Set once Redis answered
+    private RedisTemplate<byte[], byte[]> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "redis"})
+    void rotatesEachTokenOnceAndRevokesTheRest(String backend) {
+        RefreshTokenStore store = store(backend);
+        store.store("first", subject, TTL_MILLIS);
+        store.store("second", subject, TTL_MILLIS);
+        assertIndexed(2);
+
+        assertThat(store.rotate("first", "third", subject, TTL_MILLIS)).isTrue();
+        assertIndexed(2);
+        // Reuse of a rotated token and rotation of an unknown one store nothing
+        assertThat(store.rotate("first", "fourth", subject, TTL_MILLIS)).isFalse();
+        assertThat(store.rotate("unknown", "fifth", subject, TTL_MILLIS)).isFalse();
+        assertIndexed(2);
+
+        // A deletion does not know the owner: the digest stays indexed until it expires, and is not counted below
+        store.delete("second");
+        assertIndexed(2);
+        store.store("sixth", "someone-else-" + subject, TTL_MILLIS);
+
+        assertThat(store.revokeAll(subject, TTL_MILLIS)).isEqualTo(1);
+        assertThat(store.rotate("third", "seventh", subject, TTL_MILLIS)).isFalse();
+        assertThat(store.revokeAll(subject, TTL_MILLIS)).isZero();
+        assertIndexed(0);
+        assertThat(store.rotate("sixth", "eighth", "someone-else-" + subject, TTL_MILLIS)).isTrue();
+        store.revokeAll("someone-else-" + subject, TTL_MILLIS);
+    }
+
+    @Test
+    void legacyTokensOfAUserWhoseTokensWereRevokedCannotBeRotated() {
+        store("redis");
+        RedisRefreshTokenStore store = new RedisRefreshTokenStore(redisTemplate, new SimpleMeterRegistry(), true, 5,
+                5000, RedisRefreshTokenStore.DegradedMode.REJECT, 0, false, 64, 2000);
+        String other = "someone-else-" + subject;
+        for (String token : List.of("legacy", "revoked-legacy", "other-legacy")) {
+            redisTemplate.opsForValue().set(RefreshTokenLayout.legacyKey(token), "1".getBytes(),
+                    Duration.ofMillis(TTL_MILLIS));
+        }
+
+        assertThat(store.rotate("legacy", "migrated", subject, TTL_MILLIS)).isTrue();
+        assertThat(store.revokeAll(subject, TTL_MILLIS)).isEqualTo(1);
+        assertThat(store.rotate("revoked-legacy", "stolen", subject, TTL_MILLIS)).isFalse();
+        assertThat(redisTemplate.hasKey(RefreshTokenLayout.legacyKey("revoked-legacy"))).isFalse();
+        assertThat(store.rotate("other-legacy", "unaffected", other, TTL_MILLIS)).isTrue();
+
+        redisTemplate.delete(List.of(RefreshTokenLayout.revokedKey(subject)));
+        store.revokeAll(other, TTL_MILLIS);
+        redisTemplate.delete(List.of(RefreshTokenLayout.revokedKey(other)));
+    }
+
+    @Test
+    void batchedStoreKeepsWritingAfterItWasClosed() {
+        store("redis");
+        RedisRefreshTokenStore store = new RedisRefreshTokenStore(redisTemplate, new SimpleMeterRegistry(), false, 5,
+                5000, RedisRefreshTokenStore.DegradedMode.REJECT, 0, true, 64, 2000);
+        store.store("before", subject, TTL_MILLIS);
+
+        store.close();
+        assertThat(store.rotate("before", "after", subject, TTL_MILLIS)).isTrue();
+        store.store("other", subject, TTL_MILLIS);
+        assertThat(store.revokeAll(subject, TTL_MILLIS)).isEqualTo(2);
+    }
+
+    @Test
+    void journalRotatesOnlyTokensIssuedDuringTheOutage() {
+        // Nothing listens on port 1: every call fails over to the journal
+        connectionFactory = connectionFactory(1);
+        RedisTemplate<byte[], byte[]> unreachable = new RedisTemplate<>();
+        unreachable.setConnectionFactory(connectionFactory);
+        unreachable.setEnableDefaultSerializer(false);
+        unreachable.afterPropertiesSet();
+        RedisRefreshTokenStore store = new RedisRefreshTokenStore(unreachable, new SimpleMeterRegistry(), false, 1,
+                60_000, RedisRefreshTokenStore.DegradedMode.JOURNAL, 100, false, 64, 2000);
+
+        store.store("during", subject, TTL_MILLIS);
+        assertThat(store.rotate("during", "next", subject, TTL_MILLIS)).isTrue();
+        assertThat(store.rotate("during", "again", subject, TTL_MILLIS)).isFalse();
+        assertThatThrownBy(() -> store.rotate("before", "stolen", subject, TTL_MILLIS))
+                .isInstanceOf(ServiceUnavailableException.class);
+        store.delete("next");
+        assertThat(store.rotate("next", "after-logout", subject, TTL_MILLIS)).isFalse();
+    }
+
+    private RefreshTokenStore store(String backend) {
+        if (backend.equals("memory")) {
+            return new InMemoryRefreshTokenStore(new SimpleMeterRegistry(), 100, 1000, "");
+        }
+        connectionFactory = connectionFactory(Integer.getInteger("redis.port", 6379));
+        assumeTrue(redisReachable(), "Redis is not reachable");
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setEnableDefaultSerializer(false);
+        redisTemplate.afterPropertiesSet();
+        return new RedisRefreshTokenStore(redisTemplate, new SimpleMeterRegistry(), false, 5, 5000,
+                RedisRefreshTokenStore.DegradedMode.REJECT, 0, false, 64, 2000);
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(System.getProperty("redis.host", "localhost"), port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofSeconds(2)).build());
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private boolean redisReachable() {
+        try (var connection = connectionFactory.getConnection()) {
+            return "PONG".equals(connection.ping());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Size of the per-user index, rtu:<subject>
+    private void assertIndexed(long tokens) {
+        if (redisTemplate != null) {
+            assertThat(redisTemplate.opsForZSet().zCard(RefreshTokenLayout.indexKey(subject))).isEqualTo(tokens);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenTableTests {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private record Token(long hi, long lo) {
+    }
+
+    private record Entry(long owner, long expiresAt) {
+    }
+
+    @Test
+    void matchesAMapUnderRandomOperations() {
+        // Small and nearly full, so that probe sequences are long and deletions shift entries around
+        int maxTokens = 200;
+        RefreshTokenTable table = new RefreshTokenTable(maxTokens, TICK, START);
+        Map<Token, Entry> expected = new HashMap<>();
+        List<Token> known = new ArrayList<>();
+        Random random = new Random(42);
+        long now = START;
+
+        for (int i = 0; i < 200_000; i++) {
+            int operation = random.nextInt(100);
+            if (operation < 45 || known.isEmpty()) {
+                // Low bits clustered on purpose: colliding home slots
+                Token token = new Token(random.nextLong(), random.nextLong() & 0xFFFF_FFFF_0000_0000L);
+                Entry entry = new Entry(random.nextInt(8), now + 1 + random.nextInt(120_000));
+                boolean full = expected.size() >= maxTokens;
+                assertThat(table.put(token.hi(), token.lo(), entry.owner(), entry.expiresAt())).isEqualTo(!full);
+                if (!full) {
+                    expected.put(token, entry);
+                    known.add(token);
+                }
+            } else if (operation < 75) {
+                Token token = known.get(random.nextInt(known.size()));
+                Entry entry = expected.remove(token);
+                assertThat(table.remove(token.hi(), token.lo())).isEqualTo(entry == null ? 0 : entry.expiresAt());
+            } else if (operation < 77) {
+                long owner = random.nextInt(8);
+                long finalNow = now;
+                long live = expected.values().stream()
+                        .filter(entry -> entry.owner() == owner && entry.expiresAt() > finalNow)
+                        .count();
+                expected.values().removeIf(entry -> entry.owner() == owner);
+                assertThat(table.removeOwner(owner, now)).isEqualTo(live);
+            } else {
+                now += random.nextInt(3000);
+                long nowTick = now / TICK;
+                int due = (int) expected.values().stream()
+                        .filter(entry -> Math.ceilDiv(entry.expiresAt(), TICK) <= nowTick)
+                        .count();
+                expected.values().removeIf(entry -> Math.ceilDiv(entry.expiresAt(), TICK) <= nowTick);
+                assertThat(table.advance(now)).isEqualTo(due);
+            }
+
+            assertThat(table.size()).isEqualTo(expected.size());
+            if (i % 1000 == 0) {
+                for (Token token : known) {
+                    Entry entry = expected.get(token);
+                    assertThat(table.expiresAt(token.hi(), token.lo())).isEqualTo(entry == null ? 0 : entry.expiresAt());
+                }
+                known.removeIf(token -> !expected.containsKey(token));
+            }
+        }
+    }
+
+    @Test
+    void expiresTokensOnTheirTickAtEveryLevelOfTheWheel() {
+        RefreshTokenTable table = new RefreshTokenTable(100, TICK, START);
+        List<Duration> lifetimes = List.of(Duration.ofSeconds(3), Duration.ofMinutes(5), Duration.ofHours(2),
+                Duration.ofDays(7), Duration.ofDays(400));
+        for (int i = 0; i < lifetimes.size(); i++) {
+            table.put(i, i, 1, START + lifetimes.get(i).toMillis());
+        }
+
+        for (int i = 0; i < lifetimes.size(); i++) {
+            long expiresAt = START + lifetimes.get(i).toMillis();
+            assertThat(table.advance(expiresAt - 1)).isZero();
+            assertThat(table.expiresAt(i, i)).isEqualTo(expiresAt);
+            assertThat(table.advance(expiresAt)).isEqualTo(1);
+            assertThat(table.expiresAt(i, i)).isZero();
+        }
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void snapshotRecordsRestoreUnexpiredTokens() {
+        RefreshTokenTable table = new RefreshTokenTable(100, TICK, START);
+        table.put(1, 1, 7, START + 60_000);
+        table.put(2, 2, 7, START + 120_000);
+        table.put(3, 3, 8, START + 120_000);
+        ByteBuffer snapshot = ByteBuffer.allocate(table.size() * RefreshTokenTable.RECORD_BYTES);
+        assertThat(table.writeTo(snapshot)).isEqualTo(3);
+
+        long restart = START + 90_000;
+        RefreshTokenTable restored = new RefreshTokenTable(100, TICK, restart);
+        snapshot.flip();
+        int loaded = 0;
+        while (snapshot.hasRemaining()) {
+            loaded += restored.readFrom(snapshot, restart) ? 1 : 0;
+        }
+
+        assertThat(loaded).isEqualTo(2);
+        assertThat(restored.expiresAt(1, 1)).isZero();
+        assertThat(restored.expiresAt(2, 2)).isEqualTo(START + 120_000);
+        assertThat(restored.removeOwner(7, restart)).isEqualTo(1);
+        assertThat(restored.expiresAt(3, 3)).isEqualTo(START + 120_000);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.authentication.jwt_authentication_be.common;
+
+/**
+ * Wall-clock time one request spends in each stage, from the servlet filters down to the repositories, held in
+ * a thread local while the request runs.
+ * <p>
+ * Layers report through the static methods, which do nothing outside a timed request (scheduled tasks, the
+ * import hashing pool), so reporting costs a thread-local read and, inside a request, an array update. Reported
+ * stages add up: three repository calls show as their sum. {@link Stage#FILTERS}, {@link Stage#HANDLER} and
+ * {@link Stage#SERIALIZE} are the spans between the marks set by the web layer instead, and the reported stages
+ * nest inside them.
+ */
+public final class RequestTiming {
+
+    public enum Stage {
+        // Filter chain up to the controller, security included
+        FILTERS("filters"),
+        // Access token verification and denylist check in JwtAuthenticationFilter
+        JWT("jwt"),
+        // Controller and service, until the response body is written
+        HANDLER("handler"),
+        USER_REPOSITORY("user-repo"),
+        REFRESH_STORE("refresh-store"),
+        // Waiting for the hashing pool included
+        BCRYPT("bcrypt"),
+        // Writing the response body (JSON)
+        SERIALIZE("serialize");
+
+        private static final Stage[] VALUES = values();
+
+        private final String metricName;
+
+        Stage(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private final long[] reported = new long[Stage.VALUES.length];
+    private long handlerStart;
+    private long bodyStart;
+
+    private RequestTiming() {
+    }
+
+    // Starts timing the request on the current thread; end it with clear()
+    public static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void record(Stage stage, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.reported[stage.ordinal()] += nanos;
+        }
+    }
+
+    public static void markHandlerStart() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.handlerStart == 0) {
+            timing.handlerStart = System.nanoTime();
+        }
+    }
+
+    public static void markBodyStart() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.bodyStart == 0) {
+            timing.bodyStart = System.nanoTime();
+        }
+    }
+
+    public long elapsed(long now) {
+        return now - start;
+    }
+
+    // Time spent in the stage as of now
+    public long nanos(Stage stage, long now) {
+        return switch (stage) {
+            case FILTERS -> (handlerStart != 0 ? handlerStart : now) - start;
+            case HANDLER -> handlerStart == 0 ? 0 : (bodyStart != 0 ? bodyStart : now) - handlerStart;
+            case SERIALIZE -> bodyStart == 0 ? 0 : now - bodyStart;
+            default -> reported[stage.ordinal()];
+        };
+    }
+
+    // Server-Timing header value, e.g. "filters;dur=0.412, jwt;dur=0.105, handler;dur=3.208, total;dur=3.980"
+    public String serverTiming(long now) {
+        StringBuilder header = new StringBuilder(160);
+        for (Stage stage : Stage.VALUES) {
+            long nanos = nanos(stage, now);
+            if (nanos > 0) {
+                appendMillis(header.append(stage.metricName).append(";dur="), nanos).append(", ");
+            }
+        }
+        return appendMillis(header.append("total;dur="), elapsed(now)).toString();
+    }
+
+    // The stages as key=value pairs for a log line, e.g. "filters_ms=0.412 jwt_ms=0.105 handler_ms=3.208"
+    public String breakdown(long now) {
+        StringBuilder line = new StringBuilder(160);
+        for (Stage stage : Stage.VALUES) {
+            long nanos = nanos(stage, now);
+            if (nanos > 0) {
+                if (!line.isEmpty()) {
+                    line.append(' ');
+                }
+                appendMillis(line.append(stage.metricName.replace('-', '_')).append("_ms="), nanos);
+            }
+        }
+        return line.toString();
+    }
+
+    // Milliseconds with microsecond precision, without going through String.format
+    private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+        long micros = nanos / 1000;
+        builder.append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            builder.append('0');
+        }
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+}
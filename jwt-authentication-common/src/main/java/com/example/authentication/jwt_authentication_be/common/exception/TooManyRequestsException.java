@@ -0,0 +1,17 @@
+package com.example.authentication.jwt_authentication_be.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends AppException {
+    // Seconds for the Retry-After header
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.authentication.jwt_authentication_be.config;
+
+import com.example.authentication.jwt_authentication_be.utils.JwtKeyRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Builds the JWT signing key ring and reloads it without a restart.
+ * <p>
+ * HMAC keys are configured as {@code jwt.signing-keys.<kid>=<secret>}, asymmetric ones as
+ * {@code jwt.asymmetric-keys.<kid>.algorithm} (ES256 on P-256, or EdDSA), {@code .private-key} and {@code .public-key},
+ * plus {@code jwt.active-key-id}. Without any of them the ring holds the single {@code jwt.secret} under the
+ * {@code default} kid. If {@code jwt.keys-location} points to a properties file with the same keys, it takes
+ * precedence and is re-read whenever it changes.
+ */
+@Configuration
+@EnableScheduling
+public class JwtKeyRingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRingConfig.class);
+
+    private final Environment environment;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${jwt.keys-location:}")
+    private String keysLocation;
+
+    private JwtKeyRing keyRing;
+    private long keysLastModified;
+
+    public JwtKeyRingConfig(Environment environment, ResourceLoader resourceLoader) {
+        this.environment = environment;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Bean
+    public JwtKeyRing jwtKeyRing(
+            @Value("${jwt.access-token-expiration:900000}") long accessTokenExpiration,
+            @Value("${jwt.refresh-token-expiration:604800000}") long refreshTokenExpiration) {
+        // Retired keys must outlive every token they signed
+        Duration grace = Duration.ofMillis(Math.max(accessTokenExpiration, refreshTokenExpiration));
+        KeyConfig config = loadKeyConfig();
+        keyRing = new JwtKeyRing(config.keys(), config.activeKeyId(), grace);
+        return keyRing;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys-reload-interval:30000}")
+    public void reloadKeys() {
+        if (keysLocation.isBlank() || keyRing == null) {
+            return;
+        }
+        try {
+            if (resourceLoader.getResource(keysLocation).lastModified() == keysLastModified) {
+                return;
+            }
+            KeyConfig config = loadKeyConfig();
+            keyRing.reload(config.keys(), config.activeKeyId());
+            log.info("Reloaded JWT signing keys from {}, active kid '{}'", keysLocation, config.activeKeyId());
+        } catch (Exception e) {
+            // Keep serving with the current keys; a broken file must not take authentication down
+            log.error("Failed to reload JWT signing keys from {}", keysLocation, e);
+        }
+    }
+
+    private KeyConfig loadKeyConfig() {
+        Binder binder = Binder.get(environment);
+        if (!keysLocation.isBlank()) {
+            binder = new Binder(new MapConfigurationPropertySource(readKeysFile()));
+        }
+
+        Map<String, JwtKeyRing.SigningKey> keys = new HashMap<>();
+        binder.bind("jwt.signing-keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .forEach((kid, secret) -> keys.put(kid, JwtKeyRing.SigningKey.hmac(secret)));
+        binder.bind("jwt.asymmetric-keys", Bindable.mapOf(String.class, AsymmetricKeyProperties.class))
+                .orElse(Map.of())
+                .forEach((kid, properties) -> keys.put(kid, toSigningKey(kid, properties)));
+
+        if (keys.isEmpty()) {
+            String secret = environment.getProperty("jwt.secret",
+                    "mySecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLong");
+            return new KeyConfig(Map.of(JwtKeyRing.DEFAULT_KEY_ID, JwtKeyRing.SigningKey.hmac(secret)),
+                    JwtKeyRing.DEFAULT_KEY_ID);
+        }
+        String activeKeyId = binder.bind("jwt.active-key-id", String.class)
+                .orElseThrow(() -> new IllegalStateException("jwt.active-key-id is required when signing keys are configured"));
+        return new KeyConfig(keys, activeKeyId);
+    }
+
+    // Keys are base64 DER (PKCS#8 private, X.509 public); PEM armour and line breaks are tolerated
+    private static JwtKeyRing.SigningKey toSigningKey(String kid, AsymmetricKeyProperties properties) {
+        String keyAlgorithm = switch (properties.algorithm()) {
+            case "ES256" -> "EC";
+            case "EdDSA" -> "Ed25519";
+            default -> throw new IllegalStateException(
+                    "Unsupported algorithm '" + properties.algorithm() + "' for JWT key '" + kid + "'");
+        };
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodeDer(properties.privateKey())));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodeDer(properties.publicKey())));
+            if (privateKey instanceof ECKey ecPrivate && publicKey instanceof ECKey ecPublic
+                    && !(isP256(ecPrivate) && isP256(ecPublic))) {
+                // jjwt would sign with ES384/ES512 for the larger curves, unlike what the JWKS publishes
+                throw new IllegalStateException("JWT key '" + kid + "' is ES256 but not on curve P-256");
+            }
+            return JwtKeyRing.SigningKey.asymmetric(privateKey, publicKey);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid key material for JWT key '" + kid + "'", e);
+        }
+    }
+
+    private static boolean isP256(ECKey key) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec p256 = parameters.getParameterSpec(ECParameterSpec.class);
+        return key.getParams().getCurve().equals(p256.getCurve())
+                && key.getParams().getGenerator().equals(p256.getGenerator())
+                && key.getParams().getOrder().equals(p256.getOrder());
+    }
+
+    private static byte[] decodeDer(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private Properties readKeysFile() {
+        Resource resource = resourceLoader.getResource(keysLocation);
+        try {
+            keysLastModified = resource.lastModified();
+            return PropertiesLoaderUtils.loadProperties(resource);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT signing keys from " + keysLocation, e);
+        }
+    }
+
+    private record KeyConfig(Map<String, JwtKeyRing.SigningKey> keys, String activeKeyId) {
+    }
+
+    record AsymmetricKeyProperties(String algorithm, String privateKey, String publicKey) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.authentication.jwt_authentication_be.domain.model;
+
+/**
+ * What sign-in reads: the password hash to check, and the profile that goes into the tokens and the response
+ * once it matches.
+ */
+public record UserCredentials(UserProfile profile, String password) {
+
+    // Flat form, for JPQL constructor expressions
+    public UserCredentials(Long id, String firstName, String lastName, String email, String password) {
+        this(new UserProfile(id, firstName, lastName, email), password);
+    }
+
+    public static UserCredentials of(User user) {
+        return new UserCredentials(UserProfile.of(user), user.getPassword());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.authentication.jwt_authentication_be.domain.model;
+
+/**
+ * The public part of a user, without the password hash: all that profile lookups such as /api/users/me need.
+ */
+public record UserProfile(Long id, String firstName, String lastName, String email) {
+
+    public static UserProfile of(User user) {
+        return new UserProfile(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+    }
+}
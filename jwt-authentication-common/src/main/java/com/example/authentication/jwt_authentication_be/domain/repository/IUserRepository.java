@@ -0,0 +1,54 @@
+package com.example.authentication.jwt_authentication_be.domain.repository;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.domain.model.UserCredentials;
+import com.example.authentication.jwt_authentication_be.domain.model.UserProfile;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface IUserRepository {
+    boolean existsByEmail(String email);
+
+    User findByEmail(String email);
+
+    // Read-only projections: no managed entity, no password hash where it isn't needed
+    UserCredentials findCredentialsByEmail(String email);
+
+    UserProfile findProfileByEmail(String email);
+
+    // Replaces the hash without loading the user, e.g. when login upgrades it
+    void updatePassword(String email, String password);
+
+    User save(User user);
+
+    void deleteByEmail(String email);
+
+    User findById(Long id);
+
+    void deleteById(Long id);
+
+    /**
+     * @deprecated loads the whole table, password hashes included, into memory; use {@link #findPageAfter} or
+     * {@link #forEachUser}
+     */
+    @Deprecated
+    Iterable<User> findAll();
+
+    // At most limit users with an id above afterId, in id order, without password hashes
+    List<User> findPageAfter(long afterId, int limit);
+
+    // Every user in id order, read through a database cursor one fetch at a time, without password hashes
+    void forEachUser(Consumer<User> action);
+
+    long count();
+
+    // Which of the given emails are already taken, in one query
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    // Inserts new users in one JDBC batch and transaction; fails as a whole on any conflict
+    void insertAll(List<User> users);
+
+}
@@ -0,0 +1,245 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.utils.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revoked access tokens, by {@code jti}, fronted by a local Bloom filter so that checking a token that
+ * was not revoked costs no network I/O.
+ * <p>
+ * Revoking a token writes {@code atd:<jti>} with a TTL equal to the token's remaining life and appends the
+ * jti to the {@code atd-log} stream, which is trimmed to one access-token lifetime. Every node tails the
+ * stream into its Bloom filter every {@code jwt.access-token-denylist.sync-interval} ms, and periodically
+ * rebuilds the filter from the whole stream to forget expired entries. Only when the filter reports a
+ * possible match is Redis asked whether the jti is really revoked.
+ * <p>
+ * The same mechanism records profile changes ({@code atp:<email>}, holding the time of the change), so that
+ * access tokens carrying a profile claim issued before a change are recognised as stale without a lookup
+ * on every request.
+ * <p>
+ * Revocation is best effort. Until the first sync has filled the filter (just after startup, or for as long as
+ * Redis is down at startup) no token is treated as revoked: asking Redis on every request instead would put it
+ * on the hot path just when it is failing. Later lookups treat an unreachable Redis as "not revoked" rather
+ * than rejecting every request.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenDenylist.class);
+
+    private static final String PREFIX = "atd:";
+    private static final String PROFILE_CHANGE_PREFIX = "atp:";
+    private static final String STREAM_KEY = "atd-log";
+    private static final String JTI_FIELD = "jti";
+    private static final String SUBJECT_FIELD = "sub";
+    // Bloom filter entries for profile changes, kept apart from jtis
+    private static final String PROFILE_CHANGE_ENTRY = "profile:";
+    private static final int SYNC_BATCH_SIZE = 1000;
+
+    // KEYS[1] denylist key, KEYS[2] stream; ARGV[1] jti, ARGV[2] TTL, ARGV[3] oldest stream id worth keeping
+    private static final RedisScript<Boolean> REVOKE_SCRIPT = RedisScript.of("""
+            redis.call('SET', KEYS[1], '1', 'PX', ARGV[2])
+            redis.call('XADD', KEYS[2], 'MINID', '~', ARGV[3], '*', 'jti', ARGV[1])
+            return 1
+            """, Boolean.class);
+
+    // KEYS[1] profile change key, KEYS[2] stream; ARGV[1] subject, ARGV[2] change time, ARGV[3] TTL,
+    // ARGV[4] oldest stream id worth keeping
+    private static final RedisScript<Boolean> PROFILE_CHANGE_SCRIPT = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            redis.call('XADD', KEYS[2], 'MINID', '~', ARGV[4], '*', 'sub', ARGV[1])
+            return 1
+            """, Boolean.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final long accessTokenExpiration;
+    private final long rebuildInterval;
+
+    // Null until the first successful sync, meanwhile nothing counts as revoked; replaced wholesale on rebuild
+    private volatile BloomFilter filter;
+    // Only touched by the scheduler thread
+    private String lastStreamId;
+    private long lastRebuildMillis;
+    private boolean syncFailing;
+
+    public AccessTokenDenylist(StringRedisTemplate redisTemplate,
+            @Value("${jwt.access-token-denylist.enabled:true}") boolean enabled,
+            @Value("${jwt.access-token-denylist.expected-entries:100000}") long expectedEntries,
+            @Value("${jwt.access-token-denylist.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${jwt.access-token-denylist.rebuild-interval:300000}") long rebuildInterval,
+            @Value("${jwt.access-token-expiration:900000}") long accessTokenExpiration) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        this.accessTokenExpiration = accessTokenExpiration;
+    }
+
+    /**
+     * Revokes the access token with the given id until it expires.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        long now = System.currentTimeMillis();
+        long remaining = expiresAt.toEpochMilli() - now;
+        if (remaining <= 0) {
+            return;
+        }
+        // Stream ids start with the append time, so everything older than a token lifetime can go
+        String oldestUseful = Long.toString(now - accessTokenExpiration);
+        redisTemplate.execute(REVOKE_SCRIPT, List.of(revocationKey(jti), STREAM_KEY), jti, Long.toString(remaining),
+                oldestUseful);
+
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti);
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!mightBeRevoked(jti)) {
+            return false;
+        }
+        try {
+            Boolean revoked = redisTemplate.hasKey(revocationKey(jti));
+            return revoked != null && revoked;
+        } catch (RuntimeException e) {
+            log.warn("Access token denylist lookup failed, treating token as not revoked: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Records that the profile of {@code subject} changed, so profile claims in its current access tokens
+     * are no longer trusted.
+     */
+    public void markProfileChanged(String subject) {
+        long now = System.currentTimeMillis();
+        redisTemplate.execute(PROFILE_CHANGE_SCRIPT, List.of(profileChangeKey(subject), STREAM_KEY), subject,
+                Long.toString(now), Long.toString(accessTokenExpiration), Long.toString(now - accessTokenExpiration));
+
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(PROFILE_CHANGE_ENTRY + subject);
+        }
+    }
+
+    /**
+     * Whether the profile of {@code subject} changed at or after {@code issuedAt}, i.e. a profile claim in a
+     * token issued then may be out of date.
+     */
+    public boolean isProfileChangedSince(String subject, Instant issuedAt) {
+        if (issuedAt == null || !mightHaveProfileChanged(subject)) {
+            return false;
+        }
+        try {
+            String changedAt = redisTemplate.opsForValue().get(profileChangeKey(subject));
+            // iat has second precision, so a token issued in the same second as the change counts as stale
+            return changedAt != null && Long.parseLong(changedAt) >= issuedAt.toEpochMilli();
+        } catch (RuntimeException e) {
+            log.warn("Profile change lookup failed, trusting the token's profile claim: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Local part of {@link #isRevoked}: false means the token is certainly not revoked, true that Redis has to
+     * be asked, under {@link #revocationKey}. Lets callers that can't block do that lookup themselves.
+     */
+    public boolean mightBeRevoked(String jti) {
+        if (!enabled || jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        return current != null && current.mightContain(jti);
+    }
+
+    /**
+     * Local part of {@link #isProfileChangedSince}; the change time is stored under {@link #profileChangeKey}.
+     */
+    public boolean mightHaveProfileChanged(String subject) {
+        if (!enabled || subject == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        return current != null && current.mightContain(PROFILE_CHANGE_ENTRY + subject);
+    }
+
+    public static String revocationKey(String jti) {
+        return PREFIX + jti;
+    }
+
+    public static String profileChangeKey(String subject) {
+        return PROFILE_CHANGE_PREFIX + subject;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.access-token-denylist.sync-interval:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            if (filter == null || now - lastRebuildMillis >= rebuildInterval) {
+                BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+                lastStreamId = readInto(rebuilt, "0-0");
+                filter = rebuilt;
+                lastRebuildMillis = now;
+            } else {
+                lastStreamId = readInto(filter, lastStreamId);
+            }
+            if (syncFailing) {
+                log.info("Access token denylist sync recovered");
+                syncFailing = false;
+            }
+        } catch (RuntimeException e) {
+            // Log once per outage; the next run retries from the last id that was read
+            if (!syncFailing) {
+                log.warn("Access token denylist sync failed: {}", e.getMessage());
+                syncFailing = true;
+            }
+        }
+    }
+
+    private String readInto(BloomFilter target, String fromId) {
+        String id = fromId;
+        while (true) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                    StreamReadOptions.empty().count(SYNC_BATCH_SIZE),
+                    StreamOffset.create(STREAM_KEY, ReadOffset.from(id)));
+            if (records == null || records.isEmpty()) {
+                return id;
+            }
+            for (MapRecord<String, Object, Object> record : records) {
+                Object jti = record.getValue().get(JTI_FIELD);
+                if (jti != null) {
+                    target.put(jti.toString());
+                }
+                Object subject = record.getValue().get(SUBJECT_FIELD);
+                if (subject != null) {
+                    target.put(PROFILE_CHANGE_ENTRY + subject);
+                }
+                id = record.getId().getValue();
+            }
+            if (records.size() < SYNC_BATCH_SIZE) {
+                return id;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.exception.TooManyRequestsException;
+import com.example.authentication.jwt_authentication_be.utils.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles sign-in attempts per client IP and per email before any user lookup or password check happens.
+ * <p>
+ * The first check is an in-process {@link TokenBucket} per IP and per email, which absorbs bursts on one node
+ * without any I/O; every attempt takes a token from the IP's bucket, but only failed ones from the email's, and
+ * an attempt is refused while either is empty. Attempts that pass it are counted in Redis, shared by all nodes,
+ * with a sliding-window counter: two fixed windows per key, the previous one weighted by how much of it still
+ * overlaps the sliding window. Every attempt counts against its IP; only failed ones count against the email,
+ * so its owner can still sign in while someone else is guessing from many addresses, up to
+ * {@code login-throttle.email-limit}.
+ * <p>
+ * An unreachable Redis leaves only the local buckets in force instead of refusing every sign-in.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final String IP_PREFIX = "rl:ip:";
+    private static final String EMAIL_PREFIX = "rl:email:";
+
+    // KEYS[1..2] current/previous IP window, KEYS[3..4] current/previous email window; ARGV[1] IP limit,
+    // ARGV[2] email limit, ARGV[3] weight of the previous window, ARGV[4] TTL.
+    // Returns 0 and counts the attempt when allowed, 1 when the IP is over its limit, 2 for the email
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of("""
+            local weight = tonumber(ARGV[3])
+            local function estimate(current, previous)
+              return (tonumber(redis.call('GET', previous)) or 0) * weight + (tonumber(redis.call('GET', current)) or 0)
+            end
+            if estimate(KEYS[3], KEYS[4]) >= tonumber(ARGV[2]) then
+              return 2
+            end
+            if estimate(KEYS[1], KEYS[2]) >= tonumber(ARGV[1]) then
+              return 1
+            end
+            redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return 0
+            """, Long.class);
+
+    // KEYS[1] current email window; ARGV[1] TTL
+    private static final RedisScript<Long> FAILURE_SCRIPT = RedisScript.of("""
+            local count = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return count
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final boolean redisEnabled;
+    private final int localBurst;
+    private final long localRefillNanos;
+    private final long window;
+    private final int ipLimit;
+    private final int emailLimit;
+    private final Cache<String, TokenBucket> localBuckets;
+    private final Counter localRejections;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+    private volatile boolean redisFailing;
+
+    public LoginThrottle(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+            @Value("${login-throttle.enabled:true}") boolean enabled,
+            @Value("${login-throttle.redis.enabled:true}") boolean redisEnabled,
+            @Value("${login-throttle.local.burst:10}") int localBurst,
+            @Value("${login-throttle.local.per-minute:30}") int localPerMinute,
+            @Value("${login-throttle.local.maximum-keys:100000}") long localMaximumKeys,
+            @Value("${login-throttle.window:300000}") long window,
+            @Value("${login-throttle.ip-limit:100}") int ipLimit,
+            @Value("${login-throttle.email-limit:10}") int emailLimit) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.redisEnabled = redisEnabled;
+        this.localBurst = localBurst;
+        this.localRefillNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, localPerMinute);
+        this.window = window;
+        this.ipLimit = ipLimit;
+        this.emailLimit = emailLimit;
+        // A bucket idle for longer than it takes to refill is full, so it can be dropped and recreated
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(localMaximumKeys)
+                .expireAfterAccess(Duration.ofNanos(localRefillNanos * Math.max(1, localBurst)))
+                .build();
+
+        this.localRejections = Counter.builder("auth.login.throttled").tag("tier", "local").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("tier", "ip").register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("tier", "email").register(meterRegistry);
+    }
+
+    /**
+     * Admits a sign-in attempt for {@code email} from {@code clientIp}, or throws
+     * {@link TooManyRequestsException} carrying a {@code Retry-After}.
+     */
+    public void acquire(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        String normalizedEmail = normalize(email);
+        admitLocal(IP_PREFIX + clientIp, true);
+        admitLocal(EMAIL_PREFIX + normalizedEmail, false);
+        if (!redisEnabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long currentWindow = now / window;
+        // Fraction of the previous window still inside the sliding window ending now
+        double previousWeight = 1.0 - (double) (now % window) / window;
+        Long result;
+        try {
+            result = redisTemplate.execute(ACQUIRE_SCRIPT,
+                    List.of(windowKey(IP_PREFIX + clientIp, currentWindow),
+                            windowKey(IP_PREFIX + clientIp, currentWindow - 1),
+                            windowKey(EMAIL_PREFIX + normalizedEmail, currentWindow),
+                            windowKey(EMAIL_PREFIX + normalizedEmail, currentWindow - 1)),
+                    Integer.toString(ipLimit), Integer.toString(emailLimit), Double.toString(previousWeight),
+                    Long.toString(window * 2));
+            redisRecovered();
+        } catch (RuntimeException e) {
+            redisFailed(e);
+            return;
+        }
+        if (result == null || result == 0) {
+            return;
+        }
+        // The estimate only drops once the current window ends and its successor starts to discount it
+        long retryAfter = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(window - now % window + 999));
+        if (result == 1) {
+            ipRejections.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts from this address, please retry later",
+                    retryAfter);
+        }
+        emailRejections.increment();
+        throw new TooManyRequestsException("Too many failed sign-in attempts for this account, please retry later",
+                retryAfter);
+    }
+
+    /**
+     * Counts a failed password check against {@code email}.
+     */
+    public void recordFailure(String email) {
+        if (!enabled) {
+            return;
+        }
+        String normalizedEmail = normalize(email);
+        localBucket(EMAIL_PREFIX + normalizedEmail).tryAcquire();
+        if (!redisEnabled) {
+            return;
+        }
+        long currentWindow = System.currentTimeMillis() / window;
+        try {
+            redisTemplate.execute(FAILURE_SCRIPT, List.of(windowKey(EMAIL_PREFIX + normalizedEmail, currentWindow)),
+                    Long.toString(window * 2));
+            redisRecovered();
+        } catch (RuntimeException e) {
+            redisFailed(e);
+        }
+    }
+
+    // Takes a token from the key's bucket, or with take false only checks that it has one
+    private void admitLocal(String key, boolean take) {
+        TokenBucket bucket = localBucket(key);
+        long waitNanos = take ? bucket.tryAcquire() : bucket.availableIn();
+        if (waitNanos > 0) {
+            localRejections.increment();
+            throw new TooManyRequestsException("Too many sign-in attempts, please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+    }
+
+    private TokenBucket localBucket(String key) {
+        return localBuckets.get(key, k -> new TokenBucket(localBurst, localRefillNanos));
+    }
+
+    private void redisFailed(RuntimeException e) {
+        // Log once per outage
+        if (!redisFailing) {
+            log.warn("Login throttling in Redis failed, only local limits apply: {}", e.getMessage());
+            redisFailing = true;
+        }
+    }
+
+    private void redisRecovered() {
+        if (redisFailing) {
+            log.info("Login throttling in Redis recovered");
+            redisFailing = false;
+        }
+    }
+
+    private static String windowKey(String key, long window) {
+        return key + ":" + window;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
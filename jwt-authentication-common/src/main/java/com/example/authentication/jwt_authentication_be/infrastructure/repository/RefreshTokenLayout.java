@@ -0,0 +1,140 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.utils.TokenDigests;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Redis key and value format of stored refresh tokens, and the scripts that maintain them, shared by the
+ * {@code RedisRefreshTokenStore} of jwt-authentication-be and the reactive variant's store so that both can serve
+ * the same tokens.
+ * <p>
+ * Keys are {@code rt:} followed by the first 16 bytes of the token's SHA-256 digest (19 bytes instead of a
+ * 260-byte JWT). The value is the token's family id (16 bytes, shared by every token rotated from the same
+ * login) followed by the owner's email in UTF-8.
+ * <p>
+ * Every owner also has an index, {@code rtu:<email>}: a sorted set of their token digests scored by expiry
+ * time. It is updated in the same script as the tokens, pruned of expired members on every write and
+ * expires together with the owner's last token, so revoking all of a user's tokens never needs a key scan.
+ * <p>
+ * Tokens stored by earlier versions under {@code rt:<jwt>} are in no index. Revoking all of a user's tokens also
+ * sets {@code rtr:<email>} for as long as any such token may live, and while it is set none of them can be
+ * rotated.
+ */
+public final class RefreshTokenLayout {
+
+    private static final byte[] PREFIX = "rt:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INDEX_PREFIX = "rtu:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REVOKED_PREFIX = "rtr:".getBytes(StandardCharsets.US_ASCII);
+    private static final int DIGEST_KEY_LENGTH = 16;
+    private static final int FAMILY_LENGTH = 16;
+
+    // KEYS[1] token key, KEYS[2] owner index; ARGV[1] entry, ARGV[2] TTL, ARGV[3] digest, ARGV[4] expiry, ARGV[5] now
+    public static final RedisScript<Boolean> STORE_SCRIPT = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[4], ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[5])
+            if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            end
+            return 1
+            """, Boolean.class);
+
+    // Consume the old token and store the new one, in the same family, in a single atomic server-side step.
+    // KEYS[1] old token key, KEYS[2] new token key, KEYS[3] owner index, KEYS[4] and KEYS[5] (optional) old token's
+    // legacy key and owner's revocation marker; ARGV[1] TTL, ARGV[2] entry for a token migrated from the legacy
+    // format, ARGV[3] old digest, ARGV[4] new digest, ARGV[5] expiry, ARGV[6] now
+    public static final RedisScript<Boolean> ROTATE_SCRIPT = RedisScript.of("""
+            local entry = redis.call('GET', KEYS[1])
+            if entry then
+                redis.call('DEL', KEYS[1])
+            elseif KEYS[4] and redis.call('DEL', KEYS[4]) == 1 and redis.call('EXISTS', KEYS[5]) == 0 then
+                entry = ARGV[2]
+            else
+                return 0
+            end
+            redis.call('SET', KEYS[2], entry, 'PX', ARGV[1])
+            redis.call('ZREM', KEYS[3], ARGV[3])
+            redis.call('ZADD', KEYS[3], ARGV[5], ARGV[4])
+            redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[6])
+            if redis.call('PTTL', KEYS[3]) < tonumber(ARGV[1]) then
+                redis.call('PEXPIRE', KEYS[3], ARGV[1])
+            end
+            return 1
+            """, Boolean.class);
+
+    // KEYS[1] owner index, KEYS[2] (optional) owner's revocation marker; ARGV[1] token key prefix, ARGV[2] now,
+    // ARGV[3] TTL of the marker. Returns the number of indexed tokens that were still stored.
+    public static final RedisScript<Long> REVOKE_ALL_SCRIPT = RedisScript.of("""
+            local revoked = 0
+            for _, digest in ipairs(redis.call('ZRANGE', KEYS[1], 0, -1)) do
+                revoked = revoked + redis.call('DEL', ARGV[1] .. digest)
+            end
+            redis.call('DEL', KEYS[1])
+            if KEYS[2] then
+                redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            end
+            return revoked
+            """, Long.class);
+
+    private RefreshTokenLayout() {
+    }
+
+    /**
+     * Prefix of every token key, the argument of {@link #REVOKE_ALL_SCRIPT}.
+     */
+    public static byte[] keyPrefix() {
+        return PREFIX.clone();
+    }
+
+    public static byte[] digest(String refreshToken) {
+        return Arrays.copyOf(TokenDigests.sha256(refreshToken), DIGEST_KEY_LENGTH);
+    }
+
+    public static byte[] key(byte[] digest) {
+        byte[] key = Arrays.copyOf(PREFIX, PREFIX.length + digest.length);
+        System.arraycopy(digest, 0, key, PREFIX.length, digest.length);
+        return key;
+    }
+
+    public static byte[] key(String refreshToken) {
+        return key(digest(refreshToken));
+    }
+
+    public static byte[] indexKey(String subject) {
+        return ownerKey(INDEX_PREFIX, subject);
+    }
+
+    public static byte[] revokedKey(String subject) {
+        return ownerKey(REVOKED_PREFIX, subject);
+    }
+
+    public static byte[] number(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static byte[] legacyKey(String refreshToken) {
+        return ("rt:" + refreshToken).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] newEntry(String subject) {
+        UUID family = UUID.randomUUID();
+        byte[] owner = subject.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(FAMILY_LENGTH + owner.length)
+                .putLong(family.getMostSignificantBits())
+                .putLong(family.getLeastSignificantBits())
+                .put(owner)
+                .array();
+    }
+
+    private static byte[] ownerKey(byte[] prefix, String subject) {
+        byte[] owner = subject.getBytes(StandardCharsets.UTF_8);
+        byte[] key = Arrays.copyOf(prefix, prefix.length + owner.length);
+        System.arraycopy(owner, 0, key, prefix.length, owner.length);
+        return key;
+    }
+}
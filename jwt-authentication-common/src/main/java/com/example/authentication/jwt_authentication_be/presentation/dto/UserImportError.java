@@ -0,0 +1,17 @@
+package com.example.authentication.jwt_authentication_be.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportError {
+    // 1-based line of the row in the uploaded file
+    private long line;
+    private String email;
+    private String message;
+}
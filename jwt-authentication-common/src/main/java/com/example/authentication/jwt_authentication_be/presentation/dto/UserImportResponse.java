@@ -0,0 +1,20 @@
+package com.example.authentication.jwt_authentication_be.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+    private long total;
+    private long imported;
+    private long failed;
+    // The first user-import.max-reported-errors failures; failed counts them all
+    private List<UserImportError> errors;
+}
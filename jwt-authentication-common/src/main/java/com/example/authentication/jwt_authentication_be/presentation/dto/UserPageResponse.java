@@ -0,0 +1,18 @@
+package com.example.authentication.jwt_authentication_be.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserDto> users;
+    // Pass as "after" to get the next page; null on the last one
+    private Long nextAfterId;
+}
@@ -0,0 +1,88 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker over consecutive failures: after {@code failureThreshold} of them in a row it opens and
+ * refuses calls for {@code openNanos}, then lets a single probe call through (half-open). The probe's outcome
+ * closes it again or reopens it for another period.
+ * <p>
+ * Callers ask {@link #tryAcquire()} before each call and report its outcome with {@link #onSuccess()} or
+ * {@link #onFailure()}. No lock is taken: the state is a volatile field, and the one probe of the half-open
+ * state is elected with a CAS.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Whether a call may go ahead: always while closed, never while open, and for exactly one caller, the
+     * probe, once the open period is over.
+     */
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && remainingOpenNanos() > 0) {
+            return false;
+        }
+        if (probing.compareAndSet(false, true)) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a successful call and returns true if it closed the breaker.
+     */
+    public boolean onSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.HALF_OPEN) {
+            return false;
+        }
+        state = State.CLOSED;
+        probing.set(false);
+        return true;
+    }
+
+    /**
+     * Records a failed call and returns true if it opened the breaker.
+     */
+    public boolean onFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            boolean opened = state != State.OPEN;
+            openedAt = System.nanoTime();
+            state = State.OPEN;
+            consecutiveFailures.set(0);
+            probing.set(false);
+            return opened;
+        }
+        return false;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Until a probe is let through; 0 unless open
+    public long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (System.nanoTime() - openedAt)) : 0;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Set of signing keys identified by {@code kid}. New tokens are signed with the active key and carry
+ * its id in the JWS header; verification looks the key up by {@code kid} in a pre-built map.
+ * Keys are either HMAC secrets or asymmetric (ES256/EdDSA) key pairs whose public halves are
+ * published through {@link #getPublicKeys()}.
+ * <p>
+ * Keys dropped from the configuration on {@link #reload} are not forgotten immediately: they stay valid for
+ * verification for the retired-key grace period (the longest token lifetime), so rotation never
+ * invalidates tokens that are still live. Tokens without a {@code kid} header are verified with the key
+ * whose id is {@link #DEFAULT_KEY_ID}.
+ */
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private final Duration retiredKeyGrace;
+    private final Clock clock;
+    // Serialises reloads; a lock rather than synchronized so a virtual thread holding it is never pinned
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing(Map<String, SigningKey> keys, String activeKeyId, Duration retiredKeyGrace) {
+        this(keys, activeKeyId, retiredKeyGrace, Clock.systemUTC());
+    }
+
+    public JwtKeyRing(Map<String, SigningKey> keys, String activeKeyId, Duration retiredKeyGrace, Clock clock) {
+        this.retiredKeyGrace = retiredKeyGrace;
+        this.clock = clock;
+        this.snapshot = buildSnapshot(keys, activeKeyId, Map.of(), 0);
+    }
+
+    public static JwtKeyRing singleKey(String secret, Duration retiredKeyGrace) {
+        return new JwtKeyRing(Map.of(DEFAULT_KEY_ID, SigningKey.hmac(secret)), DEFAULT_KEY_ID, retiredKeyGrace);
+    }
+
+    /**
+     * Atomically replaces the configured keys. Keys that disappear keep verifying until the grace period ends.
+     */
+    public void reload(Map<String, SigningKey> keys, String activeKeyId) {
+        reloadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Instant now = clock.instant();
+            Instant retiredUntil = now.plus(retiredKeyGrace);
+
+            Map<String, RetiredKey> retired = new HashMap<>();
+            current.retiredKeys.forEach((kid, key) -> {
+                if (key.validUntil.isAfter(now) && !keys.containsKey(kid)) {
+                    retired.put(kid, key);
+                }
+            });
+            current.keys.forEach((kid, key) -> {
+                if (!keys.containsKey(kid)) {
+                    retired.put(kid, new RetiredKey(key, retiredUntil));
+                }
+            });
+
+            snapshot = buildSnapshot(keys, activeKeyId, retired, current.version + 1);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Key id and key used to sign new tokens, read together so a concurrent reload can't mix them up.
+     */
+    public ActiveKey getActiveKey() {
+        return snapshot.activeKey;
+    }
+
+    /**
+     * Public halves of the asymmetric keys, including retired ones, by kid.
+     */
+    public Map<String, PublicKey> getPublicKeys() {
+        return snapshot.publicKeys;
+    }
+
+    /**
+     * Incremented on every reload, so derived views such as the JWKS document know when to rebuild.
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KEY_ID;
+        Snapshot current = snapshot;
+
+        SigningKey key = current.keys.get(kid);
+        if (key != null) {
+            return key.verificationKey();
+        }
+        RetiredKey retiredKey = current.retiredKeys.get(kid);
+        if (retiredKey != null && retiredKey.validUntil.isAfter(clock.instant())) {
+            return retiredKey.key.verificationKey();
+        }
+        throw new SignatureException("Unknown or retired signing key id");
+    }
+
+    private static Snapshot buildSnapshot(Map<String, SigningKey> keys, String activeKeyId,
+            Map<String, RetiredKey> retiredKeys, long version) {
+        SigningKey active = keys.get(activeKeyId);
+        if (active == null) {
+            throw new IllegalArgumentException("Active signing key '" + activeKeyId + "' is not configured");
+        }
+
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        keys.forEach((kid, key) -> {
+            if (key.verificationKey() instanceof PublicKey publicKey) {
+                publicKeys.put(kid, publicKey);
+            }
+        });
+        retiredKeys.forEach((kid, retired) -> {
+            if (retired.key.verificationKey() instanceof PublicKey publicKey) {
+                publicKeys.put(kid, publicKey);
+            }
+        });
+
+        return new Snapshot(new ActiveKey(activeKeyId, active.signingKey()), Map.copyOf(keys),
+                Map.copyOf(retiredKeys), Map.copyOf(publicKeys), version);
+    }
+
+    /**
+     * Key pair used for one kid: the same secret twice for HMAC, private/public halves for ES256/EdDSA.
+     */
+    public record SigningKey(Key signingKey, Key verificationKey) {
+        public static SigningKey hmac(String secret) {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            return new SigningKey(key, key);
+        }
+
+        public static SigningKey asymmetric(PrivateKey privateKey, PublicKey publicKey) {
+            return new SigningKey(privateKey, publicKey);
+        }
+    }
+
+    public record ActiveKey(String id, Key key) {
+    }
+
+    private record Snapshot(ActiveKey activeKey, Map<String, SigningKey> keys, Map<String, RetiredKey> retiredKeys,
+            Map<String, PublicKey> publicKeys, long version) {
+    }
+
+    private record RetiredKey(SigningKey key, Instant validUntil) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class JwtUtil {
+
+    public static final String TOKEN_TYPE_CLAIM = "type";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+    // Compact profile claim: {"id":..,"fn":..,"ln":..}
+    public static final String PROFILE_CLAIM = "prf";
+
+    private final long accessTokenExpiration;
+    private final long refreshTokenExpiration;
+
+    private final JwtKeyRing keyRing;
+
+    // The parser is immutable and thread-safe; it resolves the verification key by kid through the key ring
+    private final JwtParser parser;
+
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+    private final Counter expiredTokens;
+    private final Counter invalidTokens;
+
+    public JwtUtil(
+            JwtKeyRing keyRing,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.access-token-expiration:900000}") long accessTokenExpiration, // 15 minutes default
+            @Value("${jwt.refresh-token-expiration:604800000}") long refreshTokenExpiration) { // 7 days default
+        this.keyRing = keyRing;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing)
+                .build();
+        this.signTimer = Timer.builder("auth.jwt").tag("operation", "sign").register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.jwt").tag("operation", "verify").register(meterRegistry);
+        this.expiredTokens = Counter.builder("auth.rejected").tag("reason", "expired").register(meterRegistry);
+        this.invalidTokens = Counter.builder("auth.rejected").tag("reason", "invalid").register(meterRegistry);
+    }
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims in one pass.
+     * Throws {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims;
+        long start = System.nanoTime();
+        try {
+            claims = extractAllClaims(token);
+        } catch (ExpiredJwtException e) {
+            expiredTokens.increment();
+            throw e;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokens.increment();
+            throw e;
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return VerifiedToken.builder()
+                .subject(claims.getSubject())
+                .type(claims.get(TOKEN_TYPE_CLAIM, String.class))
+                .expiration(toInstant(claims.getExpiration()))
+                .issuedAt(toInstant(claims.getIssuedAt()))
+                .id(claims.getId())
+                .profile(toProfile(claims.get(PROFILE_CLAIM)))
+                .build();
+    }
+
+    private Claims extractAllClaims(String token) {
+        return parser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public String generateAccessToken(String username) {
+        return createToken(ACCESS_TOKEN_TYPE, username, accessTokenExpiration, null);
+    }
+
+    /**
+     * Access token carrying the caller's profile; a {@code null} profile gives a plain access token.
+     */
+    public String generateAccessToken(String username, TokenProfile profile) {
+        return createToken(ACCESS_TOKEN_TYPE, username, accessTokenExpiration, profile);
+    }
+
+    public String generateRefreshToken(String username) {
+        return createToken(REFRESH_TOKEN_TYPE, username, refreshTokenExpiration, null);
+    }
+
+    private String createToken(String type, String subject, long expiration, TokenProfile profile) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        JwtKeyRing.ActiveKey signingKey = keyRing.getActiveKey();
+        String token = Jwts.builder()
+                .header().keyId(signingKey.id()).and()
+                .claim(TOKEN_TYPE_CLAIM, type)
+                .claim(PROFILE_CLAIM, profile != null ? toClaim(profile) : null)
+                .subject(subject)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey.key())
+                .compact();
+        signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    private static Map<String, Object> toClaim(TokenProfile profile) {
+        Map<String, Object> claim = new LinkedHashMap<>();
+        claim.put("id", profile.getId());
+        claim.put("fn", profile.getFirstName());
+        claim.put("ln", profile.getLastName());
+        return claim;
+    }
+
+    private static TokenProfile toProfile(Object claim) {
+        if (!(claim instanceof Map<?, ?> map)) {
+            return null;
+        }
+        Object id = map.get("id");
+        return TokenProfile.builder()
+                .id(id instanceof Number number ? number.longValue() : null)
+                .firstName((String) map.get("fn"))
+                .lastName((String) map.get("ln"))
+                .build();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    public long getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
+
+    public long getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
+    }
+}
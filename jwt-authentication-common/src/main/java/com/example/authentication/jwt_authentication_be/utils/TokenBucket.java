@@ -0,0 +1,62 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens and refilling one every {@code refillNanos}.
+ * <p>
+ * The state is a single "theoretical arrival time" (the generic cell rate algorithm): the instant at which the
+ * bucket would be full again. Taking a token pushes it one refill period further, and a token is available as
+ * long as that instant is less than {@code capacity} periods ahead of now, so one CAS replaces a lock.
+ */
+public class TokenBucket {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, long refillNanos) {
+        this(capacity, refillNanos, System::nanoTime);
+    }
+
+    // For tests, with a clock of their own
+    TokenBucket(int capacity, long refillNanos, LongSupplier nanoTime) {
+        this.refillNanos = refillNanos;
+        this.burstNanos = Math.max(1, capacity) * refillNanos;
+        this.nanoTime = nanoTime;
+        this.fullAt = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one becomes available
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = fullAt.get();
+            // An idle bucket is simply full; it doesn't bank tokens beyond its capacity
+            long next = Math.max(current, now) + refillNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Like {@link #tryAcquire}, but leaves the token in the bucket.
+     *
+     * @return 0 if a token is available, otherwise the nanoseconds until one becomes available
+     */
+    public long availableIn() {
+        long now = nanoTime.getAsLong();
+        return Math.max(0, Math.max(fullAt.get(), now) + refillNanos - now - burstNanos);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Profile fields embedded in access tokens when {@code jwt.profile-claim.enabled} is on, so that endpoints
+ * needing only the caller's identity can answer from the verified token. The email is the token subject.
+ */
+@Value
+@Builder
+public class TokenProfile {
+    Long id;
+    String firstName;
+    String lastName;
+}
@@ -0,0 +1,36 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked by {@link JwtUtil#verify(String)}.
+ * Used as the Spring Security principal so the token is parsed only once per request.
+ */
+@Value
+@Builder
+public class VerifiedToken implements AuthenticatedPrincipal {
+    String subject;
+    String type;
+    Instant expiration;
+    Instant issuedAt;
+    String id;
+    // Only present on access tokens issued with the profile claim enabled
+    TokenProfile profile;
+
+    public boolean isAccessToken() {
+        return JwtUtil.ACCESS_TOKEN_TYPE.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return JwtUtil.REFRESH_TOKEN_TYPE.equals(type);
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Size-bounded cache of verified access tokens keyed by the SHA-256 digest of the token string.
+ * A hit skips signature verification and JSON parsing entirely; every entry expires no later
+ * than the token's own {@code exp}. Refresh tokens are never cached.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<TokenKey, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+            @Value("${jwt.verified-token-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.verified-token-cache.maximum-size:100000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new UntilTokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * Returns the verified claims of the token, verifying it with {@link JwtUtil#verify(String)} on a miss.
+     * Throws {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    public VerifiedToken verify(String token) {
+        if (cache == null) {
+            return jwtUtil.verify(token);
+        }
+
+        TokenKey key = TokenKey.of(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.getExpiration().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        VerifiedToken verified = jwtUtil.verify(token);
+        if (verified.isAccessToken() && verified.getExpiration() != null) {
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Underlying cache for metrics binding, or {@code null} when the cache is disabled.
+     */
+    public Cache<?, ?> getNativeCache() {
+        return cache;
+    }
+
+    private record TokenKey(long w0, long w1, long w2, long w3) {
+        static TokenKey of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(TokenDigests.sha256(token));
+            return new TokenKey(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<TokenKey, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(TokenKey key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.getExpiration()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
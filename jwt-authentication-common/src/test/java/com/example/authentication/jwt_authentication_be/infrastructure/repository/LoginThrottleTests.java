@@ -0,0 +1,45 @@
+package com.example.authentication.jwt_authentication_be.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The local tier only: a burst of three per key, refilled at one a minute so that nothing refills meanwhile
+class LoginThrottleTests {
+
+    private final LoginThrottle throttle = new LoginThrottle(null, new SimpleMeterRegistry(), true, false,
+            3, 1, 1000, 300_000, 100, 10);
+
+    @Test
+    void chargesEveryAttemptToItsAddress() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("203.0.113.7", "user" + i + "@example.com");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("203.0.113.7", "other@example.com"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(59L, 60L));
+        assertThatNoException().isThrownBy(() -> throttle.acquire("203.0.113.8", "other@example.com"));
+    }
+
+    @Test
+    void chargesOnlyFailedAttemptsToTheEmail() {
+        // Successful sign-ins from several addresses leave the account's bucket alone
+        for (int i = 0; i < 10; i++) {
+            throttle.acquire("198.51.100." + i, "owner@example.com");
+        }
+
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("192.0.2." + i, " Owner@Example.com");
+            throttle.recordFailure(" Owner@Example.com");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("198.51.100.99", "owner@example.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatNoException().isThrownBy(() -> throttle.acquire("198.51.100.99", "someone@example.com"));
+    }
+}
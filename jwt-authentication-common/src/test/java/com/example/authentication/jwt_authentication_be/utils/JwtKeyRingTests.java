@@ -0,0 +1,109 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTests {
+
+    private static final String OLD_SECRET = "oldSecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLong";
+    private static final String NEW_SECRET = "newSecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLong";
+
+    private MutableClock clock;
+    private JwtKeyRing keyRing;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.now());
+        keyRing = new JwtKeyRing(Map.of("k1", JwtKeyRing.SigningKey.hmac(OLD_SECRET)), "k1", Duration.ofDays(1), clock);
+        jwtUtil = new JwtUtil(keyRing, new SimpleMeterRegistry(), 900000L, 604800000L);
+    }
+
+    @Test
+    void rotationKeepsTokensSignedWithThePreviousKeyValid() {
+        String oldToken = jwtUtil.generateRefreshToken("admin@example.com");
+
+        keyRing.reload(Map.of("k2", JwtKeyRing.SigningKey.hmac(NEW_SECRET)), "k2");
+        String newToken = jwtUtil.generateRefreshToken("admin@example.com");
+
+        assertThat(keyRing.getActiveKey().id()).isEqualTo("k2");
+        assertThat(jwtUtil.verify(oldToken).getSubject()).isEqualTo("admin@example.com");
+        assertThat(jwtUtil.verify(newToken).getSubject()).isEqualTo("admin@example.com");
+    }
+
+    @Test
+    void retiredKeyStopsVerifyingAfterGracePeriod() {
+        // The refresh token itself is still unexpired; only its signing key has left the ring
+        String oldToken = jwtUtil.generateRefreshToken("admin@example.com");
+
+        keyRing.reload(Map.of("k2", JwtKeyRing.SigningKey.hmac(NEW_SECRET)), "k2");
+        clock.advance(Duration.ofHours(23));
+        assertThat(jwtUtil.verify(oldToken).getSubject()).isEqualTo("admin@example.com");
+
+        clock.advance(Duration.ofHours(2));
+        assertThatThrownBy(() -> jwtUtil.verify(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void asymmetricActiveKeyIsPublishedAndVerifies() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        String hmacToken = jwtUtil.generateAccessToken("admin@example.com");
+
+        keyRing.reload(Map.of(
+                "k1", JwtKeyRing.SigningKey.hmac(OLD_SECRET),
+                "ed1", JwtKeyRing.SigningKey.asymmetric(keyPair.getPrivate(), keyPair.getPublic())), "ed1");
+        String edToken = jwtUtil.generateAccessToken("admin@example.com");
+
+        assertThat(keyRing.getPublicKeys()).containsOnlyKeys("ed1");
+        assertThat(jwtUtil.verify(edToken).getSubject()).isEqualTo("admin@example.com");
+        assertThat(jwtUtil.verify(hmacToken).getSubject()).isEqualTo("admin@example.com");
+    }
+
+    @Test
+    void activeKeyMustBeConfigured() {
+        assertThatThrownBy(() -> keyRing.reload(Map.of("k2", JwtKeyRing.SigningKey.hmac(NEW_SECRET)), "k3"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(keyRing.getActiveKey().id()).isEqualTo("k1");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
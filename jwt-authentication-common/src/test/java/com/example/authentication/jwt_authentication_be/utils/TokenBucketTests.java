@@ -0,0 +1,59 @@
+package com.example.authentication.jwt_authentication_be.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    private static final long REFILL = 1_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void takesABurstThenReportsTheWaitForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(3, REFILL, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.availableIn()).isZero();
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isEqualTo(REFILL);
+        now.addAndGet(400);
+        assertThat(bucket.availableIn()).isEqualTo(REFILL - 400);
+        assertThat(bucket.tryAcquire()).isEqualTo(REFILL - 400);
+    }
+
+    @Test
+    void refillsOneTokenPerPeriodUpToItsCapacity() {
+        TokenBucket bucket = new TokenBucket(3, REFILL, now::get);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire();
+        }
+
+        now.addAndGet(2 * REFILL);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isEqualTo(REFILL);
+
+        // Idle for much longer than a refill of the whole bucket: still only a burst of three
+        now.addAndGet(100 * REFILL);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isEqualTo(REFILL);
+    }
+
+    @Test
+    void checkingLeavesTheTokenInTheBucket() {
+        TokenBucket bucket = new TokenBucket(1, REFILL, now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.availableIn()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.availableIn()).isEqualTo(REFILL);
+    }
+}
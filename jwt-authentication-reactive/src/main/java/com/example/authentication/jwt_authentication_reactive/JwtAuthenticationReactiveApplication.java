@@ -0,0 +1,22 @@
+package com.example.authentication.jwt_authentication_reactive;
+
+import com.example.authentication.jwt_authentication_be.config.JwtKeyRingConfig;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.LoginThrottle;
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedTokenCache;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+// Components shared with jwt-authentication-be, so tokens, keys, revocations and sign-in limits are interchangeable
+@SpringBootApplication
+@Import({ JwtKeyRingConfig.class, JwtUtil.class, VerifiedTokenCache.class, AccessTokenDenylist.class,
+        LoginThrottle.class })
+public class JwtAuthenticationReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(JwtAuthenticationReactiveApplication.class, args);
+	}
+
+}
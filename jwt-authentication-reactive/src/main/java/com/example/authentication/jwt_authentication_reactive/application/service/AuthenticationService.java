@@ -0,0 +1,198 @@
+package com.example.authentication.jwt_authentication_reactive.application.service;
+
+import com.example.authentication.jwt_authentication_be.common.exception.BadRequestException;
+import com.example.authentication.jwt_authentication_be.common.exception.ConflictException;
+import com.example.authentication.jwt_authentication_be.common.exception.UnauthorizedException;
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.LoginThrottle;
+import com.example.authentication.jwt_authentication_be.presentation.dto.LoginRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.LoginResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RegisterRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
+import com.example.authentication.jwt_authentication_be.utils.JwtUtil;
+import com.example.authentication.jwt_authentication_be.utils.TokenProfile;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import com.example.authentication.jwt_authentication_reactive.config.ReactivePasswordEncoder;
+import com.example.authentication.jwt_authentication_reactive.domain.repository.IReactiveUserRepository;
+import com.example.authentication.jwt_authentication_reactive.infrastructure.repository.ReactiveRefreshTokenStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+@Service
+public class AuthenticationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationService.class);
+
+    private final IReactiveUserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final ReactivePasswordEncoder passwordEncoder;
+    private final ReactiveRefreshTokenStore refreshTokenStore;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final LoginThrottle loginThrottle;
+    private final boolean profileClaimEnabled;
+
+    public AuthenticationService(IReactiveUserRepository userRepository, JwtUtil jwtUtil,
+            ReactivePasswordEncoder passwordEncoder, ReactiveRefreshTokenStore refreshTokenStore,
+            AccessTokenDenylist accessTokenDenylist, LoginThrottle loginThrottle,
+            @Value("${jwt.profile-claim.enabled:false}") boolean profileClaimEnabled) {
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenStore = refreshTokenStore;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.loginThrottle = loginThrottle;
+        this.profileClaimEnabled = profileClaimEnabled;
+    }
+
+    public Mono<LoginResponse> login(LoginRequest request, String clientIp) {
+        // Throttled attempts never reach the database or the password encoder
+        return blocking(() -> loginThrottle.acquire(clientIp, request.getEmail()))
+                .then(Mono.defer(() -> userRepository.findByEmail(request.getEmail())))
+                .filterWhen(user -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+                .switchIfEmpty(blocking(() -> loginThrottle.recordFailure(request.getEmail()))
+                        .then(Mono.error(() -> new UnauthorizedException("Invalid email or password"))))
+                .flatMap(user -> upgradePasswordHash(user, request.getPassword()).thenReturn(user))
+                .flatMap(this::issueTokens);
+    }
+
+    public Mono<RefreshTokenResponse> refreshToken(RefreshTokenRequest request) {
+        // Deferred so that an invalid token (JwtException from the parser) is signalled as an error
+        return Mono.defer(() -> {
+            String refreshToken = request.getRefreshToken();
+
+            if (refreshToken == null || refreshToken.isBlank()) {
+                return Mono.error(new BadRequestException("Refresh token is required"));
+            }
+
+            // Single parse: signature and expiry are checked by the parser, invalid tokens throw JwtException
+            VerifiedToken verifiedToken = jwtUtil.verify(refreshToken);
+            if (!verifiedToken.isRefreshToken()) {
+                return Mono.error(new UnauthorizedException("Invalid refresh token"));
+            }
+
+            String username = verifiedToken.getSubject();
+            if (username == null) {
+                return Mono.error(new UnauthorizedException("Refresh token expired or invalid"));
+            }
+
+            // Re-issuing picks up profile changes made since the previous access token
+            Mono<Optional<TokenProfile>> profile = profileClaimEnabled
+                    ? userRepository.findByEmail(username).map(user -> Optional.of(profileOf(user)))
+                            .defaultIfEmpty(Optional.empty())
+                    : Mono.just(Optional.empty());
+
+            return profile.flatMap(p -> {
+                String newAccessToken = jwtUtil.generateAccessToken(username, p.orElse(null));
+                String newRefreshToken = jwtUtil.generateRefreshToken(username);
+
+                // Rotate refresh token: consume old and store new atomically - reject reused tokens
+                return refreshTokenStore.rotate(refreshToken, newRefreshToken, username,
+                                jwtUtil.getRefreshTokenExpiration())
+                        .flatMap(rotated -> rotated
+                                ? Mono.just(RefreshTokenResponse.builder()
+                                        .accessToken(newAccessToken)
+                                        .refreshToken(newRefreshToken)
+                                        .build())
+                                : Mono.error(new UnauthorizedException("Refresh token invalid or already used")));
+            });
+        });
+    }
+
+    /**
+     * Revokes the given access token for the rest of its life and, if given, deletes the refresh token.
+     */
+    public Mono<Void> logout(VerifiedToken accessToken, String refreshToken) {
+        Mono<Void> revoke = accessToken.getId() != null && accessToken.getExpiration() != null
+                ? blocking(() -> accessTokenDenylist.revoke(accessToken.getId(), accessToken.getExpiration()))
+                : Mono.empty();
+        Mono<Void> delete = refreshToken != null && !refreshToken.isBlank()
+                ? refreshTokenStore.delete(refreshToken)
+                : Mono.empty();
+        return revoke.then(delete);
+    }
+
+    /**
+     * Revokes every refresh token of the user. Access tokens already issued stay valid until they expire.
+     */
+    public Mono<Long> logoutEverywhere(String email) {
+        return refreshTokenStore.revokeAll(email, jwtUtil.getRefreshTokenExpiration());
+    }
+
+    public Mono<LoginResponse> register(RegisterRequest request) {
+        return userRepository.existsByEmail(request.getEmail())
+                .flatMap(exists -> exists
+                        ? Mono.error(new ConflictException("Email already exists"))
+                        : passwordEncoder.encode(request.getPassword()))
+                .map(encoded -> User.builder()
+                        .firstName(request.getFirstName())
+                        .lastName(request.getLastName())
+                        .email(request.getEmail())
+                        .password(encoded)
+                        .build())
+                .flatMap(userRepository::save)
+                .flatMap(this::issueTokens);
+    }
+
+    private Mono<LoginResponse> issueTokens(User user) {
+        String accessToken = jwtUtil.generateAccessToken(user.getEmail(), profileOf(user));
+        String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
+
+        UserDto userDto = UserDto.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .build();
+
+        return refreshTokenStore.store(refreshToken, user.getEmail(), jwtUtil.getRefreshTokenExpiration())
+                .thenReturn(LoginResponse.builder()
+                        .accessToken(accessToken)
+                        .refreshToken(refreshToken)
+                        .user(userDto)
+                        .build());
+    }
+
+    // The raw password is only available here, so hashes with an old cost or algorithm are replaced on login
+    private Mono<Void> upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return Mono.empty();
+        }
+        return passwordEncoder.encode(rawPassword)
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    return userRepository.save(user);
+                })
+                .then()
+                .onErrorResume(e -> {
+                    // The login itself succeeded; the next one retries the upgrade
+                    log.warn("Failed to upgrade password hash for {}: {}", user.getEmail(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // The denylist and the sign-in throttle are shared with the servlet application and block on Redis; each call
+    // is a single round trip, so they run on the bounded elastic scheduler rather than needing reactive twins
+    private static Mono<Void> blocking(Runnable call) {
+        return Mono.<Void>fromRunnable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+        private TokenProfile profileOf(User user) {
+        if (!profileClaimEnabled || user == null) {
+            return null;
+        }
+        return TokenProfile.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .build();
+    }
+}
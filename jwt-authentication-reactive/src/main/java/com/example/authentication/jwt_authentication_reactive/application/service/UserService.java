@@ -0,0 +1,76 @@
+package com.example.authentication.jwt_authentication_reactive.application.service;
+
+import com.example.authentication.jwt_authentication_be.common.exception.NotFoundException;
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
+import com.example.authentication.jwt_authentication_be.utils.TokenProfile;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import com.example.authentication.jwt_authentication_reactive.domain.repository.IReactiveUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class UserService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    private final IReactiveUserRepository userRepository;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public UserService(IReactiveUserRepository userRepository, AccessTokenDenylist accessTokenDenylist,
+            ReactiveStringRedisTemplate redisTemplate) {
+        this.userRepository = userRepository;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * The caller's profile, read from the token's profile claim when it has one that is still current,
+     * otherwise from the repository.
+     */
+    public Mono<UserDto> getCurrentUser(VerifiedToken token) {
+        TokenProfile profile = token.getProfile();
+        if (profile == null) {
+            return getUserByEmail(token.getSubject());
+        }
+        return isProfileChangedSince(token)
+                .flatMap(changed -> changed
+                        ? getUserByEmail(token.getSubject())
+                        : Mono.just(UserDto.builder()
+                                .id(profile.getId())
+                                .firstName(profile.getFirstName())
+                                .lastName(profile.getLastName())
+                                .email(token.getSubject())
+                                .build()));
+    }
+
+    public Mono<UserDto> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("User not found")))
+                .map(user -> UserDto.builder()
+                        .id(user.getId())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .email(user.getEmail())
+                        .build());
+    }
+
+    // Non-blocking AccessTokenDenylist.isProfileChangedSince: the Bloom filter first, Redis only on a possible match
+    private Mono<Boolean> isProfileChangedSince(VerifiedToken token) {
+        if (token.getIssuedAt() == null || !accessTokenDenylist.mightHaveProfileChanged(token.getSubject())) {
+            return Mono.just(false);
+        }
+        // iat has second precision, so a token issued in the same second as the change counts as stale
+        return redisTemplate.opsForValue().get(AccessTokenDenylist.profileChangeKey(token.getSubject()))
+                .map(changedAt -> Long.parseLong(changedAt) >= token.getIssuedAt().toEpochMilli())
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    log.warn("Profile change lookup failed, trusting the token's profile claim: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+}
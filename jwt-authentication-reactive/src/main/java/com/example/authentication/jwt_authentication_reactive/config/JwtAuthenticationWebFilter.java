@@ -0,0 +1,109 @@
+package com.example.authentication.jwt_authentication_reactive.config;
+
+import com.example.authentication.jwt_authentication_be.infrastructure.repository.AccessTokenDenylist;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedTokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * WebFlux counterpart of jwt-authentication-be's {@code JwtAuthenticationFilter}: verifies the bearer token once,
+ * rejects refresh tokens and revoked access tokens with 401, and exposes the {@link VerifiedToken} as the
+ * principal. Verification is pure CPU (and usually a cache hit), so it runs on the event loop; the revocation
+ * lookup only goes to Redis, without blocking, when the local Bloom filter can't rule the token out.
+ * <p>
+ * Not a bean on purpose: WebFlux would also install every {@link WebFilter} bean in front of the security chain.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public JwtAuthenticationWebFilter(VerifiedTokenCache verifiedTokenCache, AccessTokenDenylist accessTokenDenylist,
+            ReactiveStringRedisTemplate redisTemplate) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenylist = accessTokenDenylist;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (path.startsWith("/api/auth/")) {
+            return chain.filter(exchange);
+        }
+
+        String token = extractTokenFromRequest(exchange);
+        if (token == null) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.verify(token);
+        } catch (RuntimeException e) {
+            // Invalid or expired: carry on unauthenticated, protected routes answer 403
+            return chain.filter(exchange);
+        }
+        if (verifiedToken.isRefreshToken()) {
+            return unauthorized(exchange);
+        }
+
+        return isRevoked(verifiedToken.getId()).flatMap(revoked -> {
+            if (revoked) {
+                return unauthorized(exchange);
+            }
+            if (verifiedToken.getSubject() == null) {
+                return chain.filter(exchange);
+            }
+            // The verified token is the principal so downstream code never re-parses the JWT
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    verifiedToken,
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+            );
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        });
+    }
+
+    private Mono<Boolean> isRevoked(String jti) {
+        if (!accessTokenDenylist.mightBeRevoked(jti)) {
+            return Mono.just(false);
+        }
+        return redisTemplate.hasKey(AccessTokenDenylist.revocationKey(jti))
+                .onErrorResume(e -> {
+                    // Same fail-open rule as the blocking denylist
+                    log.warn("Access token denylist lookup failed, treating token as not revoked: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static String extractTokenFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.authentication.jwt_authentication_reactive.config;
+
+import com.example.authentication.jwt_authentication_be.common.exception.ServiceUnavailableException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) off the event loop, on a bounded scheduler of its own.
+ * <p>
+ * At most {@code threads} hashes run at once and {@code queueCapacity} more wait; beyond that, hashing is
+ * refused straight away with a {@link ServiceUnavailableException} carrying a {@code Retry-After}, the same
+ * admission rule as jwt-authentication-be's {@code BoundedPasswordEncoder}.
+ */
+public class ReactivePasswordEncoder implements AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final Scheduler scheduler;
+    private final long retryAfterSeconds;
+
+    public ReactivePasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.scheduler = Schedulers.newBoundedElastic(threads, queueCapacity, "password-hashing", 60, true);
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return hash(Mono.fromCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(Mono.fromCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    // Only inspects the stored hash's prefix and cost, so it's cheap enough for the event loop
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+
+    private <T> Mono<T> hash(Mono<T> task) {
+        return task.subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> new ServiceUnavailableException("Too many concurrent sign-in requests, please retry",
+                                retryAfterSeconds));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.authentication.jwt_authentication_reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+// The connection factory and the String templates come from Spring Boot's Redis auto-configuration
+@Configuration
+public class RedisConfig {
+
+    // Raw byte[] keys and values, for stores that keep binary digests rather than strings
+    @Bean
+    public ReactiveRedisTemplate<byte[], byte[]> binaryReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext.byteArray());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.authentication.jwt_authentication_reactive.domain.repository;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.example.authentication.jwt_authentication_be.domain.repository.IUserRepository}:
+ * the same operations on the same {@link User} model, completing empty where that one returns {@code null}.
+ */
+public interface IReactiveUserRepository {
+    Mono<Boolean> existsByEmail(String email);
+
+    Mono<User> findByEmail(String email);
+
+    Mono<User> save(User user);
+
+    Mono<Void> deleteByEmail(String email);
+
+    Mono<User> findById(Long id);
+
+    Mono<Void> deleteById(Long id);
+
+    Flux<User> findAll();
+
+    Mono<Long> count();
+
+}
@@ -0,0 +1,94 @@
+package com.example.authentication.jwt_authentication_reactive.infrastructure.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.REVOKE_ALL_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.ROTATE_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.STORE_SCRIPT;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.digest;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.indexKey;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.key;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.keyPrefix;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.legacyKey;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.newEntry;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.number;
+import static com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout.revokedKey;
+
+/**
+ * Non-blocking version of jwt-authentication-be's {@code RefreshTokenStore}, running the same scripts on the
+ * same keys (see {@link com.example.authentication.jwt_authentication_be.infrastructure.repository.RefreshTokenLayout}),
+ * so a token issued by either variant can be rotated or revoked by the other.
+ */
+@Component
+public class ReactiveRefreshTokenStore {
+
+    private final ReactiveRedisTemplate<byte[], byte[]> redisTemplate;
+    private final boolean legacyKeysFallback;
+
+    public ReactiveRefreshTokenStore(ReactiveRedisTemplate<byte[], byte[]> binaryReactiveRedisTemplate,
+            @Value("${jwt.refresh-token-store.legacy-keys-fallback:true}") boolean legacyKeysFallback) {
+        this.redisTemplate = binaryReactiveRedisTemplate;
+        this.legacyKeysFallback = legacyKeysFallback;
+    }
+
+    /**
+     * Stores the first refresh token of a new family, e.g. on login.
+     */
+    public Mono<Void> store(String refreshToken, String subject, long ttlMillis) {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            byte[] digest = digest(refreshToken);
+            return redisTemplate.execute(STORE_SCRIPT, List.of(key(digest), indexKey(subject)),
+                    List.of(newEntry(subject), number(ttlMillis), digest, number(now + ttlMillis), number(now)))
+                    .then();
+        });
+    }
+
+    public Mono<Void> delete(String refreshToken) {
+        Mono<Long> deleted = legacyKeysFallback
+                ? redisTemplate.delete(key(refreshToken), legacyKey(refreshToken))
+                : redisTemplate.delete(key(refreshToken));
+        return deleted.then();
+    }
+
+    /**
+     * Replaces {@code oldRefreshToken} with {@code newRefreshToken} in one round trip, keeping its family.
+     * Emits false, storing nothing, if the old token was unknown or already used.
+     */
+    public Mono<Boolean> rotate(String oldRefreshToken, String newRefreshToken, String subject, long ttlMillis) {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            byte[] oldDigest = digest(oldRefreshToken);
+            byte[] newDigest = digest(newRefreshToken);
+            List<byte[]> keys = legacyKeysFallback
+                    ? List.of(key(oldDigest), key(newDigest), indexKey(subject), legacyKey(oldRefreshToken),
+                            revokedKey(subject))
+                    : List.of(key(oldDigest), key(newDigest), indexKey(subject));
+            return redisTemplate.execute(ROTATE_SCRIPT, keys, List.of(number(ttlMillis), newEntry(subject), oldDigest,
+                    newDigest, number(now + ttlMillis), number(now)))
+                    .next()
+                    .defaultIfEmpty(false);
+        });
+    }
+
+    /**
+     * Revokes every refresh token of {@code subject} in one round trip and emits how many were revoked; tokens in
+     * the legacy key format are not counted, but can no longer be rotated for {@code ttlMillis}.
+     */
+    public Mono<Long> revokeAll(String subject, long ttlMillis) {
+        return Mono.defer(() -> {
+            List<byte[]> keys = legacyKeysFallback
+                    ? List.of(indexKey(subject), revokedKey(subject))
+                    : List.of(indexKey(subject));
+            return redisTemplate.execute(REVOKE_ALL_SCRIPT, keys,
+                    List.of(keyPrefix(), number(System.currentTimeMillis()), number(ttlMillis)))
+                    .next()
+                    .defaultIfEmpty(0L);
+        });
+    }
+}
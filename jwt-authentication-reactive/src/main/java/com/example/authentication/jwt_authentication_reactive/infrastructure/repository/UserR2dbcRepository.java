@@ -0,0 +1,15 @@
+package com.example.authentication.jwt_authentication_reactive.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_reactive.infrastructure.entity.user.UserEntity;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserR2dbcRepository extends ReactiveCrudRepository<UserEntity, Long> {
+    Mono<UserEntity> findByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    Mono<Void> deleteByEmail(String email);
+}
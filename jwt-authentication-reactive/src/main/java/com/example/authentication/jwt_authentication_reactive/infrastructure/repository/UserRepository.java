@@ -0,0 +1,60 @@
+package com.example.authentication.jwt_authentication_reactive.infrastructure.repository;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_reactive.domain.repository.IReactiveUserRepository;
+import com.example.authentication.jwt_authentication_reactive.mapper.UserMapper;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class UserRepository implements IReactiveUserRepository {
+
+    private final UserR2dbcRepository r2dbcRepository;
+    private final UserMapper mapper;
+
+    public UserRepository(UserR2dbcRepository r2dbcRepository, UserMapper mapper) {
+        this.r2dbcRepository = r2dbcRepository;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        return r2dbcRepository.existsByEmail(email);
+    }
+
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return r2dbcRepository.findByEmail(email).map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<User> save(User user) {
+        return r2dbcRepository.save(mapper.toEntity(user)).map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Void> deleteByEmail(String email) {
+        return r2dbcRepository.deleteByEmail(email);
+    }
+
+    @Override
+    public Mono<User> findById(Long id) {
+        return r2dbcRepository.findById(id).map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return r2dbcRepository.deleteById(id);
+    }
+
+    @Override
+    public Flux<User> findAll() {
+        return r2dbcRepository.findAll().map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return r2dbcRepository.count();
+    }
+}
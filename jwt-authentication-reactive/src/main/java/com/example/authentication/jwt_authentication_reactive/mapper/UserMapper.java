@@ -0,0 +1,35 @@
+package com.example.authentication.jwt_authentication_reactive.mapper;
+
+import com.example.authentication.jwt_authentication_be.domain.model.User;
+import com.example.authentication.jwt_authentication_reactive.infrastructure.entity.user.UserEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+
+    public User toDomain(UserEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return User.builder()
+                .id(entity.getId())
+                .firstName(entity.getFirstName())
+                .lastName(entity.getLastName())
+                .email(entity.getEmail())
+                .password(entity.getPassword())
+                .build();
+    }
+
+    public UserEntity toEntity(User domain) {
+        if (domain == null) {
+            return null;
+        }
+        return UserEntity.builder()
+                .id(domain.getId())
+                .firstName(domain.getFirstName())
+                .lastName(domain.getLastName())
+                .email(domain.getEmail())
+                .password(domain.getPassword())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authentication.jwt_authentication_reactive.presentation.controller;
+
+import com.example.authentication.jwt_authentication_be.common.ApiResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.LoginRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.LoginResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenResponse;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RegisterRequest;
+import com.example.authentication.jwt_authentication_reactive.application.service.AuthenticationService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*")
+public class AuthenticationController {
+
+    private final AuthenticationService authenticationService;
+
+    public AuthenticationController(AuthenticationService authenticationService) {
+        this.authenticationService = authenticationService;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<LoginResponse>>> login(@Valid @RequestBody LoginRequest request,
+            ServerHttpRequest httpRequest) {
+        return authenticationService.login(request, clientIp(httpRequest))
+                .map(response -> ResponseEntity.ok(new ApiResponse<>(true, response, "Login successful")));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<ApiResponse<RefreshTokenResponse>>> refresh(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        return authenticationService.refreshToken(request)
+                .map(response -> ResponseEntity.ok(new ApiResponse<>(true, response, "Token refreshed successfully")));
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<ApiResponse<LoginResponse>>> register(@Valid @RequestBody RegisterRequest request) {
+        return authenticationService.register(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(new ApiResponse<>(true, response, "Registration successful")));
+    }
+
+    // The connection's address, like HttpServletRequest.getRemoteAddr() in jwt-authentication-be
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "";
+        }
+        return remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authentication.jwt_authentication_reactive.presentation.controller;
+
+import com.example.authentication.jwt_authentication_be.common.ApiResponse;
+import com.example.authentication.jwt_authentication_be.common.exception.UnauthorizedException;
+import com.example.authentication.jwt_authentication_be.presentation.dto.RefreshTokenRequest;
+import com.example.authentication.jwt_authentication_be.presentation.dto.UserDto;
+import com.example.authentication.jwt_authentication_be.utils.VerifiedToken;
+import com.example.authentication.jwt_authentication_reactive.application.service.AuthenticationService;
+import com.example.authentication.jwt_authentication_reactive.application.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+public class UserController {
+
+    private final UserService userService;
+    private final AuthenticationService authenticationService;
+
+    public UserController(UserService userService, AuthenticationService authenticationService) {
+        this.userService = userService;
+        this.authenticationService = authenticationService;
+    }
+
+    @GetMapping("/me")
+    public Mono<ResponseEntity<ApiResponse<UserDto>>> getCurrentUser(@AuthenticationPrincipal VerifiedToken token) {
+        // Signature and expiry were already checked once by JwtAuthenticationWebFilter
+        if (token == null) {
+            return Mono.error(new UnauthorizedException("Missing authorization token"));
+        }
+
+        return userService.getCurrentUser(token)
+                .map(user -> ResponseEntity.ok(new ApiResponse<>(true, user, "User retrieved successfully")));
+    }
+
+    @PostMapping("/me/logout")
+    public Mono<ResponseEntity<ApiResponse<Void>>> logout(@AuthenticationPrincipal VerifiedToken token,
+            @RequestBody(required = false) Mono<RefreshTokenRequest> request) {
+        if (token == null) {
+            return Mono.error(new UnauthorizedException("Missing authorization token"));
+        }
+
+        return request.mapNotNull(RefreshTokenRequest::getRefreshToken)
+                .defaultIfEmpty("")
+                .flatMap(refreshToken -> authenticationService.logout(token, refreshToken))
+                .thenReturn(ResponseEntity.ok(new ApiResponse<>(true, null, "Logged out successfully")));
+    }
+
+    @PostMapping("/me/logout-all")
+    public Mono<ResponseEntity<ApiResponse<Long>>> logoutEverywhere(@AuthenticationPrincipal VerifiedToken token) {
+        if (token == null) {
+            return Mono.error(new UnauthorizedException("Missing authorization token"));
+        }
+
+        return authenticationService.logoutEverywhere(token.getSubject())
+                .map(revoked -> ResponseEntity.ok(new ApiResponse<>(true, revoked, "Logged out from all devices")));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.authentication.jwt_authentication_reactive.presentation.exception;
+
+import com.example.authentication.jwt_authentication_be.common.ErrorResponse;
+import com.example.authentication.jwt_authentication_be.common.exception.AppException;
+import com.example.authentication.jwt_authentication_be.common.exception.ServiceUnavailableException;
+import com.example.authentication.jwt_authentication_be.common.exception.TooManyRequestsException;
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.OffsetDateTime;
+
+// Same status codes and error bodies as jwt-authentication-be's GlobalExceptionHandler
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // 400 - Validation errors from @Valid on @RequestBody
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(WebExchangeBindException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Validation failed", exchange);
+    }
+
+    // 400 - Invalid JSON/body or parameters
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInput(ServerWebInputException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.BAD_REQUEST, "MALFORMED_JSON", "Malformed JSON request", exchange);
+    }
+
+    // 404, 405, 415, ... - framework errors such as an unknown path, with the status they carry
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException ex, ServerWebExchange exchange) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        if (status == null) {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return error(status, status.name(), status.getReasonPhrase(), exchange);
+    }
+
+    // 401 - JWT/Authentication issues
+    @ExceptionHandler(JwtException.class)
+    public ResponseEntity<ErrorResponse> handleJwt(JwtException ex, ServerWebExchange exchange) {
+        return error(HttpStatus.UNAUTHORIZED, "INVALID_TOKEN", "Invalid or expired token", exchange);
+    }
+
+    // 409 - Data integrity
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex,
+            ServerWebExchange exchange) {
+        return error(HttpStatus.CONFLICT, "DATA_INTEGRITY_VIOLATION", "Data integrity violation", exchange);
+    }
+
+    // 503 - Redis or data access resource unavailable
+    @ExceptionHandler({ RedisConnectionFailureException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<ErrorResponse> handleInfrastructureUnavailable(Exception ex, ServerWebExchange exchange) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_TEMPORARILY_UNAVAILABLE",
+                "Service temporarily unavailable", exchange);
+    }
+
+    // Business/application exceptions
+    @ExceptionHandler(AppException.class)
+    public ResponseEntity<ErrorResponse> handleAppException(AppException ex, ServerWebExchange exchange) {
+        ResponseEntity<ErrorResponse> response = error(ex.getStatus(), ex.getCode(), ex.getMessage(), exchange);
+        Long retryAfterSeconds = retryAfterOf(ex);
+        if (retryAfterSeconds == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response.getBody());
+    }
+
+    // 500 - Fallback
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGeneric(Exception ex, ServerWebExchange exchange) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Internal server error", exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String code, String message,
+            ServerWebExchange exchange) {
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .code(code)
+                .message(message)
+                .path(exchange.getRequest().getPath().value())
+                .build();
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private static Long retryAfterOf(AppException ex) {
+        if (ex instanceof TooManyRequestsException tooMany) {
+            return tooMany.getRetryAfterSeconds();
+        }
+        if (ex instanceof ServiceUnavailableException unavailable) {
+            return unavailable.getRetryAfterSeconds();
+        }
+        return null;
+    }
+}
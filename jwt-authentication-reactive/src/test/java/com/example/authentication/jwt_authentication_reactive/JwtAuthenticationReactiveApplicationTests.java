@@ -0,0 +1,13 @@
+package com.example.authentication.jwt_authentication_reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class JwtAuthenticationReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
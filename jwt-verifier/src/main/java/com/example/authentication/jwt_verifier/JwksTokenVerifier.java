@@ -0,0 +1,188 @@
+package com.example.authentication.jwt_verifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verifies access tokens issued by jwt-authentication-be without calling it, using the public keys from its
+ * {@code /.well-known/jwks.json} endpoint.
+ * <p>
+ * Keys are decoded once per JWKS fetch and looked up by {@code kid}; the parser is built once, so verifying a
+ * token allocates no key objects. The key set is re-fetched by the first verify call that finds it older than
+ * the refresh interval (conditionally, via the endpoint's ETag) while other threads keep using the current keys,
+ * and immediately when a token carries an unknown {@code kid}, but never more often than the minimum refresh
+ * interval. Thread-safe.
+ * <p>
+ * A fetch gives up after the request timeout, and the default client after the connect timeout; a verify call
+ * that has to wait for another thread's fetch waits no longer than the request timeout. Either way it carries on
+ * with the keys it has, so a hanging issuer slows verification down by at most that much.
+ */
+public final class JwksTokenVerifier {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_MIN_REFRESH_INTERVAL = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(3);
+
+    private final URI jwksUri;
+    private final HttpClient httpClient;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalNanos;
+    private final Duration requestTimeout;
+    private final JwtParser parser;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile KeySet keySet;
+
+    public JwksTokenVerifier(URI jwksUri) {
+        this(jwksUri, HttpClient.newBuilder().connectTimeout(DEFAULT_CONNECT_TIMEOUT).build(),
+                DEFAULT_REFRESH_INTERVAL, DEFAULT_MIN_REFRESH_INTERVAL, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * @param httpClient     fetches the key set; its connect timeout applies, so set one
+     * @param requestTimeout how long a fetch, and a verify call waiting for one, may take
+     */
+    public JwksTokenVerifier(URI jwksUri, HttpClient httpClient, Duration refreshInterval,
+            Duration minRefreshInterval, Duration requestTimeout) {
+        this.jwksUri = jwksUri;
+        this.httpClient = httpClient;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.requestTimeout = requestTimeout;
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyLocator())
+                .build();
+        // Start out stale so the first verify call fetches the keys
+        long neverFetched = System.nanoTime() - refreshIntervalNanos - minRefreshIntervalNanos;
+        this.keySet = new KeySet(Map.of(), null, neverFetched, false);
+    }
+
+    /**
+     * Verifies the signature and expiry of an access token and returns its claims.
+     *
+     * @throws JwtException if the token is invalid, expired, signed with an unknown key or is not an access token
+     */
+    public Claims verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (!"access".equals(claims.get("type", String.class))) {
+            throw new JwtException("Not an access token");
+        }
+        return claims;
+    }
+
+    private PublicKey findKey(String kid) {
+        KeySet current = keySet;
+        long now = System.nanoTime();
+        if (now - current.fetchedAtNanos > refreshIntervalNanos) {
+            current = refresh(current, now, !current.loaded);
+        } else if (!current.loaded && now - current.fetchedAtNanos > minRefreshIntervalNanos) {
+            current = refresh(current, now, true);
+        }
+
+        PublicKey key = current.keys.get(kid);
+        if (key == null && now - current.fetchedAtNanos > minRefreshIntervalNanos) {
+            // Unknown kid: the issuer may have rotated keys since the last fetch
+            current = refresh(current, now, true);
+            key = current.keys.get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id");
+        }
+        return key;
+    }
+
+    private KeySet refresh(KeySet seen, long now, boolean wait) {
+        // One thread fetches; unless they have no usable key, concurrent callers keep the keys they already have
+        if (!(wait ? lockWithin(requestTimeout) : refreshLock.tryLock())) {
+            return keySet;
+        }
+        try {
+            if (keySet != seen) {
+                return keySet;
+            }
+            keySet = fetch(seen, now);
+            return keySet;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean lockWithin(Duration timeout) {
+        try {
+            return refreshLock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private KeySet fetch(KeySet current, long now) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(jwksUri).timeout(requestTimeout).GET();
+        if (current.etag != null) {
+            request.header("If-None-Match", current.etag);
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                return new KeySet(decode(response.body()), etag, now, true);
+            }
+            if (response.statusCode() == 304) {
+                return new KeySet(current.keys, current.etag, now, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Fall through: an unreachable issuer or a bad document must not invalidate every token at once
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Keep the last known keys and remember the attempt so a failing issuer is not hammered
+        return new KeySet(current.keys, current.etag, now, current.loaded);
+    }
+
+    private static Map<String, PublicKey> decode(String json) {
+        JwkSet jwkSet = Jwks.setParser().ignoreUnsupported(true).build().parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null) {
+                keys.put(jwk.getId(), publicJwk.toKey());
+            }
+        }
+        return Map.copyOf(keys);
+    }
+
+    private final class KeyLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            if (header.getKeyId() == null) {
+                throw new SignatureException("Token has no key id");
+            }
+            return findKey(header.getKeyId());
+        }
+    }
+
+    private record KeySet(Map<String, PublicKey> keys, String etag, long fetchedAtNanos, boolean loaded) {
+    }
+}
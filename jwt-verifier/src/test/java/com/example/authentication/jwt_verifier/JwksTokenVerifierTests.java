@@ -0,0 +1,113 @@
+package com.example.authentication.jwt_verifier;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwksTokenVerifierTests {
+
+    private HttpServer server;
+    private KeyPair keyPair;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private JwksTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        keyPair = generator.generateKeyPair();
+
+        byte[] jwks = ("{\"keys\":[" + Jwks.json(Jwks.builder().key(keyPair.getPublic()).id("ec1").build()) + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.sendResponseHeaders(200, jwks.length);
+                exchange.getResponseBody().write(jwks);
+            }
+            exchange.close();
+        });
+        server.createContext("/hanging/jwks.json", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+        verifier = new JwksTokenVerifier(uri, HttpClient.newHttpClient(), Duration.ofMinutes(5), Duration.ofMinutes(1),
+                JwksTokenVerifier.DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesAccessTokensWithCachedKeys() {
+        String token = token("ec1", "access");
+
+        assertEquals("admin@example.com", verifier.verify(token).getSubject());
+        assertEquals("admin@example.com", verifier.verify(token).getSubject());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void rejectsRefreshTokensAndUnknownKeys() {
+        assertThrows(JwtException.class, () -> verifier.verify(token("ec1", "refresh")));
+        assertThrows(JwtException.class, () -> verifier.verify(token("ec2", "access")));
+        // The unknown kid does not trigger another fetch within the minimum refresh interval
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void givesUpOnAHangingIssuer() {
+        URI hanging = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/hanging/jwks.json");
+        JwksTokenVerifier hangingVerifier = new JwksTokenVerifier(hanging, HttpClient.newHttpClient(),
+                Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(JwtException.class, () -> hangingVerifier.verify(token("ec1", "access")));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+    }
+
+    private String token(String kid, String type) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .claim("type", type)
+                .subject("admin@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+}
@@ -0,0 +1,198 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for /api/auth/login, /api/auth/refresh and /api/users/me.
+ * <p>
+ * Each of {@code concurrency} virtual threads sends one request after another for {@code seconds}, so the
+ * server sees exactly that many requests in flight. Run with {@code java scripts/LoadTest.java}; no build
+ * needed. Prints throughput, latency percentiles and the status codes seen per endpoint.
+ * <p>
+ * Usage: {@code LoadTest <base-url> <concurrency> <seconds> <email> <password> [login,refresh,me]}
+ */
+public class LoadTest {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\":\"([^\"]+)\"");
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refreshToken\":\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final String credentials;
+    // {accessToken, refreshToken} per worker, carried from one endpoint to the next so that /refresh and /me
+    // mostly reuse the sessions /login created instead of paying for another BCrypt check each
+    private final String[][] sessions;
+
+    private LoadTest(String baseUrl, String email, String password, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.credentials = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        this.sessions = new String[concurrency][];
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: LoadTest <base-url> <concurrency> <seconds> <email> <password> [login,refresh,me]");
+            System.exit(2);
+        }
+        int concurrency = Integer.parseInt(args[1]);
+        LoadTest test = new LoadTest(args[0], args[3], args[4], concurrency);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        List<String> endpoints = Arrays.asList((args.length > 5 ? args[5] : "login,refresh,me").split(","));
+
+        for (String endpoint : endpoints) {
+            Result result = test.run(endpoint, duration);
+            System.out.println(result.summary(endpoint, concurrency, duration));
+        }
+    }
+
+    private Result run(String endpoint, Duration duration) throws Exception {
+        boolean needsSession = !endpoint.equals("login");
+        // Workers without a session sign in first, outside the measured window
+        List<Future<?>> signIns = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions.length && needsSession; i++) {
+                int worker = i;
+                if (sessions[worker] == null) {
+                    signIns.add(workers.submit(() -> {
+                        sessions[worker] = login();
+                        return null;
+                    }));
+                }
+            }
+        }
+        for (Future<?> signIn : signIns) {
+            signIn.get();
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> futures = new ArrayList<>();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions.length; i++) {
+                int worker = i;
+                futures.add(workers.submit(() -> {
+                    Result result = new Result();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            HttpResponse<String> response = client.send(request(endpoint, sessions[worker]),
+                                    HttpResponse.BodyHandlers.ofString());
+                            status = response.statusCode();
+                            if (status == 200 && !endpoint.equals("me")) {
+                                sessions[worker] = new String[] { extract(ACCESS_TOKEN, response.body()),
+                                        extract(REFRESH_TOKEN, response.body()) };
+                            }
+                        } catch (java.io.IOException e) {
+                            status = -1;
+                        }
+                        result.record(status, System.nanoTime() - start);
+                    }
+                    return result;
+                }));
+            }
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        return total;
+    }
+
+    private HttpRequest request(String endpoint, String[] tokens) {
+        return switch (endpoint) {
+            case "login" -> post("/api/auth/login", credentials);
+            case "refresh" -> post("/api/auth/refresh", "{\"refreshToken\":\"" + tokens[1] + "\"}");
+            case "me" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/me"))
+                    .header("Authorization", "Bearer " + tokens[0])
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // Returns {accessToken, refreshToken}; retries while the server sheds sign-in load (503)
+    private String[] login() throws Exception {
+        while (true) {
+            HttpResponse<String> response = client.send(post("/api/auth/login", credentials),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                return new String[] { extract(ACCESS_TOKEN, response.body()), extract(REFRESH_TOKEN, response.body()) };
+            }
+            if (response.statusCode() != 503) {
+                throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static String extract(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No token in response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static final class Result {
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int count;
+
+        void record(int status, long nanos) {
+            statuses.merge(status, 1, Integer::sum);
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(Result other) {
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+        }
+
+        String summary(String endpoint, int concurrency, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return String.format("%-8s c=%-5d %8.0f req/s  p50=%7.1f ms  p95=%7.1f ms  p99=%7.1f ms  status=%s",
+                    endpoint, concurrency, count / (double) duration.toSeconds(), percentile(sorted, 0.50),
+                    percentile(sorted, 0.95), percentile(sorted, 0.99), statuses);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# ============================================================================
+# Platform vs virtual threads load test
+# ============================================================================
+# Starts the backend twice, once with platform and once with virtual request
+# threads, and drives /api/auth/login, /api/auth/refresh and /api/users/me at
+# each concurrency level with scripts/LoadTest.java.
+#
+# Needs Postgres and Redis as configured for the backend, e.g.:
+#   docker compose up -d postgres redis
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/jwt_auth REDIS_HOST=localhost scripts/load-test.sh
+#
+# Settings (environment): CONCURRENCY ("50 500 2000"), DURATION (seconds per
+# endpoint and level, 20), ENDPOINTS (login,refresh,me), PORT (8089),
+# EMAIL / PASSWORD (the seeded admin user), JAVA_OPTS.
+# Logs and results go to jwt-authentication-be/target/load-test/.
+# ============================================================================
+
+ROOT_DIR=$(cd "$(dirname "$0")/.." && pwd)
+BACKEND_DIR="$ROOT_DIR/jwt-authentication-be"
+OUT_DIR="$BACKEND_DIR/target/load-test"
+
+CONCURRENCY="${CONCURRENCY:-50 500 2000}"
+DURATION="${DURATION:-20}"
+ENDPOINTS="${ENDPOINTS:-login,refresh,me}"
+PORT="${PORT:-8089}"
+EMAIL="${EMAIL:-admin@example.com}"
+PASSWORD="${PASSWORD:-password123}"
+BASE_URL="http://localhost:$PORT"
+
+mkdir -p "$OUT_DIR"
+: > "$OUT_DIR/results.txt"
+
+echo "Building backend..."
+"$BACKEND_DIR/mvnw" -q -B -f "$ROOT_DIR/pom.xml" -pl jwt-authentication-be -am -DskipTests package
+JAR=$(ls "$BACKEND_DIR"/target/jwt-authentication-be-*.jar | grep -v plain | head -n 1)
+
+APP_PID=""
+stop_app() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+        APP_PID=""
+    fi
+}
+trap stop_app EXIT
+
+for MODE in platform virtual; do
+    VIRTUAL=false
+    [ "$MODE" = "virtual" ] && VIRTUAL=true
+    LOG="$OUT_DIR/$MODE.log"
+
+    echo "Starting backend with $MODE threads (log: $LOG)..."
+    # Login throttling would reject a single client's load; pinned virtual threads are reported in the log
+    # shellcheck disable=SC2086
+    java ${JAVA_OPTS:-} -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$VIRTUAL" \
+        --login-throttle.enabled=false \
+        > "$LOG" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 120); do
+        if [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/actuator/health")" != "000" ]; then
+            break
+        fi
+        sleep 1
+    done
+
+    for LEVEL in $CONCURRENCY; do
+        java "$ROOT_DIR/scripts/LoadTest.java" "$BASE_URL" "$LEVEL" "$DURATION" "$EMAIL" "$PASSWORD" "$ENDPOINTS" \
+            | sed "s/^/$MODE  /" | tee -a "$OUT_DIR/results.txt"
+    done
+
+    stop_app
+    PINNED=$(grep -c "<== monitors" "$LOG" || true)
+    echo "$MODE  pinned virtual thread reports: $PINNED" | tee -a "$OUT_DIR/results.txt"
+done